@@ -0,0 +1,69 @@
+package gemenielabs.sentiment.DataProcessing;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks TextNormalizer against the regexes it replaced in SetWordCountData.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TextNormalizerTest {
+
+    private static final String PERCENT_REGEX = "-*\\+*\\d*.\\d*%";
+    private static final String SENTENCE_REGEX = "(?<!\\w\\.\\w.)(?<!([A-Z][a-z])\\{30,\\}\\.)(?<=[.?])\\s";
+
+    private static final String[] ARTICLES = {
+            "",
+            "No numbers here.",
+            "Shares rose 4.5% on Monday, after a -2.1% drop. Volume was up +12%.",
+            "Margins hit 5%5% and 100%% while the index fell --+3%.",
+            "The U.S. economy grew. Apple Inc. said \"sales were strong\" in Q3? Analysts agree.",
+            "It’s the company’s best quarter. Revenue, costs, and profit all rose.  Two spaces.",
+            "Ends with a separator. ",
+            "Line breaks.\nTabs?\tCarriage.\rReturns.",
+            "e.g. this is an abbreviation. i.e. so is this.",
+            "Percent at the start %50 and the end 7%"
+    };
+
+    @Test
+    public void stripPercentagesMatchesRegex() {
+        for (String article : ARTICLES) {
+            assertEquals(article, article.replaceAll(PERCENT_REGEX, ""),
+                    TextNormalizer.stripPercentages(article));
+        }
+    }
+
+    @Test
+    public void sentencesMatchRegex() {
+        for (String article : ARTICLES) {
+            assertArrayEquals(article, regexSentences(article), TextNormalizer.sentences(article));
+        }
+    }
+
+    @Test
+    public void randomTextMatchesRegex() {
+        String alphabet = "ab.?%-+09 \n\t\",'’U.S_\rZ";
+        Random random = new Random(1);
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = random.nextInt(24);
+            for (int j = 0; j < length; j++) {
+                builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String text = builder.toString();
+            assertEquals(text, text.replaceAll(PERCENT_REGEX, ""), TextNormalizer.stripPercentages(text));
+            assertArrayEquals(text, regexSentences(text), TextNormalizer.sentences(text));
+        }
+    }
+
+    private static String[] regexSentences(String body) {
+        String alpha = body.replaceAll("\"", "").replaceAll("'", "").replaceAll(",", "").replaceAll("’", "");
+        return alpha.split(SENTENCE_REGEX);
+    }
+}
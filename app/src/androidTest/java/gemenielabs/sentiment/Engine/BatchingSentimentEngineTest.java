@@ -0,0 +1,151 @@
+package gemenielabs.sentiment.Engine;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.google.gson.Gson;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import gemenielabs.sentiment.Helper.JsonBatchReturn;
+import gemenielabs.sentiment.Helper.JsonBatchSend;
+import gemenielabs.sentiment.Helper.JsonReturn;
+import gemenielabs.sentiment.Helper.JsonSend;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs BatchingSentimentEngine against a local stand-in for the sentiment service, which calls
+ * a sentence positive when it contains "good" and neutral otherwise.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BatchingSentimentEngineTest {
+
+    private final Gson gson = new Gson();
+    private MockWebServer server;
+    private volatile boolean batchEndpoint = true;
+
+    @Before
+    public void startServer() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String body = request.getBody().readUtf8();
+                if (request.getPath().endsWith(BatchingSentimentEngine.BATCH_PATH)) {
+                    if (!batchEndpoint) {
+                        return new MockResponse().setResponseCode(404);
+                    }
+                    List<JsonReturn> results = new ArrayList<>();
+                    for (JsonSend item : gson.fromJson(body, JsonBatchSend.class).getItems()) {
+                        results.add(classify(item));
+                    }
+                    // Answer out of order, results must be matched by hash
+                    Collections.reverse(results);
+                    JsonBatchReturn batch = new JsonBatchReturn();
+                    batch.results = results.toArray(new JsonReturn[0]);
+                    return new MockResponse().setBody(gson.toJson(batch));
+                }
+                return new MockResponse().setBody(gson.toJson(classify(gson.fromJson(body, JsonSend.class))));
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void stopServer() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void batchesConcurrentArticles() throws Exception {
+        BatchingSentimentEngine engine = new BatchingSentimentEngine(url(), 32, 1 << 20, 50);
+        List<CompletableFuture<JsonReturn>> results = submit(engine, 70);
+
+        assertResults(results);
+        // Two full batches of 32, then the last 6 once the delay runs out
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void sendsAfterDelayWhenBatchIsNotFull() throws Exception {
+        BatchingSentimentEngine engine = new BatchingSentimentEngine(url(), 32, 1 << 20, 50);
+        JsonReturn result = engine.classify("solo", new String[]{"A good quarter."});
+
+        assertEquals("solo", result.getHash());
+        assertEquals("1", result.getPositive()[0]);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void splitsOnSize() throws Exception {
+        BatchingSentimentEngine engine = new BatchingSentimentEngine(url(), 32, 10, 50);
+        List<CompletableFuture<JsonReturn>> results = submit(engine, 4);
+
+        assertResults(results);
+        // Every article is past 10 characters, so each goes out as soon as it arrives
+        assertEquals(4, server.getRequestCount());
+    }
+
+    @Test
+    public void fallsBackToSingleRequests() throws Exception {
+        batchEndpoint = false;
+        BatchingSentimentEngine engine = new BatchingSentimentEngine(url(), 32, 1 << 20, 50);
+        List<CompletableFuture<JsonReturn>> results = submit(engine, 10);
+
+        assertResults(results);
+        assertEquals(11, server.getRequestCount());
+    }
+
+    private String url() {
+        String url = server.url("/").toString();
+        return url.substring(0, url.length() - 1);
+    }
+
+    private static List<CompletableFuture<JsonReturn>> submit(SentimentEngine engine, int articles) {
+        List<CompletableFuture<JsonReturn>> results = new ArrayList<>();
+        for (int i = 0; i < articles; i++) {
+            String[] sentences = i % 2 == 0
+                    ? new String[]{"Article " + i + " had a good quarter.", "Shares were flat."}
+                    : new String[]{"Article " + i + " filed its report."};
+            results.add(engine.classifyAsync("hash" + i, sentences));
+        }
+        return results;
+    }
+
+    private static void assertResults(List<CompletableFuture<JsonReturn>> results) throws Exception {
+        for (int i = 0; i < results.size(); i++) {
+            JsonReturn result = results.get(i).get(10, TimeUnit.SECONDS);
+            assertEquals("hash" + i, result.getHash());
+            assertEquals(i % 2 == 0 ? "1" : "0", result.getPositive()[0]);
+            assertEquals("1", result.getNeutral()[0]);
+        }
+    }
+
+    private static JsonReturn classify(JsonSend item) {
+        int positive = 0;
+        for (String sentence : item.getText()) {
+            if (sentence.contains("good")) {
+                positive++;
+            }
+        }
+        JsonReturn result = new JsonReturn();
+        result.setHash(item.getHash());
+        result.setPositive(new String[]{String.valueOf(positive), "0.9000"});
+        result.setNeutral(new String[]{String.valueOf(item.getText().length - positive), "0.8000"});
+        result.setNegative(new String[]{"0", "0.0000"});
+        return result;
+    }
+}
@@ -0,0 +1,103 @@
+package gemenielabs.sentiment.Lexicon;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks WordScanner against the split and regex word counting it replaced in SetWordCountData,
+ * with the stemming the lexicon has used since. Negation is off, so the counts must be identical.
+ */
+@RunWith(AndroidJUnit4.class)
+public class WordScannerTest {
+
+    private static final String[] POSITIVE = {"gain", "gains", "strong", "rise", "beat", "profit", "up"};
+    private static final String[] NEGATIVE = {"loss", "losses", "weak", "fall", "miss", "debt", "down"};
+
+    private static final String[] ARTICLES = {
+            "",
+            "No lexicon words here.",
+            "Shares ROSE on strong gains, then fell on weak guidance.",
+            "Profits, profit-taking and profitable: up, up-and-down, DOWN!",
+            "Gained  gaining\tgains\nlosses; lost? loss's debt-free.",
+            "It’s the company’s best quarter. Don't miss it, the beat goes on.",
+            "A b c d e f up down",
+            "Kelvin-sign words like weaK count too. Ünïcödé gain.",
+            "   leading and trailing spaces   "
+    };
+
+    @Test
+    public void countsMatchSplitAndRegex() {
+        SentimentLexicon lexicon = lexicon();
+        PhraseMatcher matcher = new PhraseMatcher(lexicon, new String[0], new String[0], 0);
+        for (String article : ARTICLES) {
+            assertArrayEquals(article, oldCounts(lexicon, article), scan(matcher, article));
+        }
+    }
+
+    @Test
+    public void randomTextMatchesSplitAndRegex() {
+        SentimentLexicon lexicon = lexicon();
+        PhraseMatcher matcher = new PhraseMatcher(lexicon, new String[0], new String[0], 0);
+        String[] words = {"gain", "gains", "Gained", "strong", "RISE", "rising", "loss", "weak", "falls",
+                "debt", "up", "down", "the", "a", "shares", "x"};
+        String noise = " .,;'’-9%\t\"KKÜ";
+        Random random = new Random(1);
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                if (random.nextInt(3) == 0) {
+                    builder.append(noise.charAt(random.nextInt(noise.length())));
+                } else {
+                    builder.append(words[random.nextInt(words.length)]);
+                }
+                if (random.nextBoolean()) {
+                    builder.append(' ');
+                }
+            }
+            String text = builder.toString();
+            assertArrayEquals(text, oldCounts(lexicon, text), scan(matcher, text));
+        }
+    }
+
+    private static int[] scan(PhraseMatcher matcher, String body) {
+        int[] counts = new int[2];
+        WordScanner.get().count(matcher, body, counts, null, 0);
+        return counts;
+    }
+
+    // recordWordCounts before WordScanner, looking up the stem of each cleaned word
+    private static int[] oldCounts(SentimentLexicon lexicon, String body) {
+        Stemmer stemmer = new Stemmer();
+        int pos = 0;
+        int neg = 0;
+        for (String word : body.split(" ")) {
+            String lowerWord = word.toLowerCase().replaceAll("[^a-zA-Z]", "");
+            if (lowerWord.length() > 1) {
+                int polarity = lexicon.lookup(stemmer.stem(lowerWord));
+                if ((polarity & SentimentLexicon.POSITIVE) != 0) {
+                    pos++;
+                }
+                if ((polarity & SentimentLexicon.NEGATIVE) != 0) {
+                    neg++;
+                }
+            }
+        }
+        return new int[]{pos, neg};
+    }
+
+    private static SentimentLexicon lexicon() {
+        Map<String, Integer> entries = new HashMap<>();
+        SentimentLexicon.addAll(entries, POSITIVE, SentimentLexicon.POSITIVE);
+        SentimentLexicon.addAll(entries, NEGATIVE, SentimentLexicon.NEGATIVE);
+        return new SentimentLexicon(entries);
+    }
+}
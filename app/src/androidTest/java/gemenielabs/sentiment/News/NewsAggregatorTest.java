@@ -0,0 +1,209 @@
+package gemenielabs.sentiment.News;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import gemenielabs.sentiment.Room.NewsDetails;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs NewsAggregator over a fixture file source and stand-in sources that repeat, stall or
+ * fail, collecting what reaches the sink.
+ */
+@RunWith(AndroidJUnit4.class)
+public class NewsAggregatorTest {
+
+    private final List<NewsDetails> stories = Collections.synchronizedList(new ArrayList<>());
+    private final NewsSource.Sink sink = new NewsSource.Sink() {
+        @Override
+        public void accept(NewsDetails story) {
+            stories.add(story);
+        }
+
+        @Override
+        public void checkpoint() {
+        }
+    };
+    private File fixtures;
+
+    @Before
+    public void writeFixtures() throws Exception {
+        fixtures = new File(ApplicationProvider.getApplicationContext().getCacheDir(), "news-fixtures");
+        assertTrue(fixtures.isDirectory() || fixtures.mkdirs());
+        try (OutputStream out = new FileOutputStream(new File(fixtures, "AAPL.json"))) {
+            out.write(("{\"status\":\"OK\",\"results\":["
+                    + story("https://fixture.example/1", "Apple shares rise on strong iPhone demand.", "2026-10-15")
+                    + "," + story("https://fixture.example/2", "Apple opens a new campus.", "2026-10-14")
+                    + "," + story("https://fixture.example/3", "Apple settles an old lawsuit.", "2025-03-01")
+                    + "]}").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @After
+    public void deleteFixtures() {
+        new File(fixtures, "AAPL.json").delete();
+        fixtures.delete();
+    }
+
+    @Test
+    public void readsFixturesSinceDate() {
+        int merged = new NewsAggregator()
+                .add(new FileNewsSource(fixtures), 1000)
+                .fetch("AAPL", "2026-01-01", "2026-10-17", sink);
+
+        assertEquals(2, merged);
+        assertEquals(2, stories.size());
+        assertEquals("AAPL", stories.get(0).getNewsTicker());
+        assertEquals("2026-10-17", stories.get(0).getDate());
+    }
+
+    @Test
+    public void mergesSyndicatedCopies() {
+        NewsSource syndicated = fixed("syndicated", new NewsDetails("2026-10-17", "AAPL", "Copy",
+                "2026-10-15", "https://other.example/a", "[]", "", "Other",
+                "Apple shares rise on strong iPhone demand."));
+        int merged = new NewsAggregator()
+                .add(new FileNewsSource(fixtures), 1000)
+                .add(syndicated, 1000)
+                .fetch("AAPL", "2026-01-01", "2026-10-17", sink);
+
+        // The same text under two URLs is kept once
+        assertEquals(2, merged);
+        assertEquals(2, stories.size());
+    }
+
+    @Test
+    public void keepsRepeatsFromOneSource() {
+        NewsSource repeating = fixed("repeating",
+                new NewsDetails("2026-10-17", "AAPL", "Wire", "2026-10-15", "https://wire.example/a", "[]", "",
+                        "Wire", "Apple shares rise on strong iPhone demand."),
+                new NewsDetails("2026-10-17", "AAPL", "Wire", "2026-10-15", "https://wire.example/b", "[]", "",
+                        "Wire", "Apple shares rise on strong iPhone demand."));
+        int merged = new NewsAggregator()
+                .add(repeating, 1000)
+                .fetch("AAPL", "2026-01-01", "2026-10-17", sink);
+
+        // Only copies from another source are merged
+        assertEquals(2, merged);
+        assertEquals(2, stories.size());
+    }
+
+    @Test
+    public void dropsSourcesPastTheirTimeout() {
+        NewsSource stalled = new NewsSource() {
+            @Override
+            public String name() {
+                return "stalled";
+            }
+
+            @Override
+            public void fetch(String ticker, String since, String date, Sink sink) {
+                try {
+                    Thread.sleep(2000);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                sink.accept(new NewsDetails(date, ticker, "Late", "2026-10-16", "https://late.example/",
+                        "[]", "", "Late", "A story that arrives too late."));
+            }
+        };
+        long start = System.nanoTime();
+        int merged = new NewsAggregator()
+                .add(new FileNewsSource(fixtures), 1000)
+                .add(stalled, 200)
+                .fetch("AAPL", "2026-01-01", "2026-10-17", sink);
+
+        assertEquals(2, merged);
+        assertTrue((System.nanoTime() - start) / 1000000 < 1500);
+    }
+
+    @Test
+    public void runsASingleSourceOnTheCallersThread() {
+        Thread caller = Thread.currentThread();
+        List<Thread> ranOn = new ArrayList<>();
+        NewsSource stalled = new NewsSource() {
+            @Override
+            public String name() {
+                return "stalled";
+            }
+
+            @Override
+            public void fetch(String ticker, String since, String date, Sink sink) {
+                ranOn.add(Thread.currentThread());
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                sink.accept(new NewsDetails(date, ticker, "Late", "2026-10-16", "https://late.example/",
+                        "[]", "", "Late", "A story that arrives too late."));
+            }
+        };
+        int merged = new NewsAggregator()
+                .add(stalled, 200)
+                .fetch("AAPL", "2026-01-01", "2026-10-17", sink);
+
+        assertEquals(Collections.singletonList(caller), ranOn);
+        // Its timeout still cancels it, so the late story is dropped
+        assertEquals(0, merged);
+        assertTrue(stories.isEmpty());
+    }
+
+    @Test
+    public void keepsOtherSourcesWhenOneFails() {
+        NewsSource failing = new NewsSource() {
+            @Override
+            public String name() {
+                return "failing";
+            }
+
+            @Override
+            public void fetch(String ticker, String since, String date, Sink sink) throws IOException {
+                throw new IOException("offline");
+            }
+        };
+        int merged = new NewsAggregator()
+                .add(failing, 1000)
+                .add(new FileNewsSource(fixtures), 1000)
+                .fetch("AAPL", "2026-01-01", "2026-10-17", sink);
+
+        assertEquals(2, merged);
+    }
+
+    private static NewsSource fixed(String name, NewsDetails... stories) {
+        return new NewsSource() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public void fetch(String ticker, String since, String date, Sink sink) {
+                for (NewsDetails story : stories) {
+                    sink.accept(story);
+                }
+            }
+        };
+    }
+
+    private static String story(String url, String description, String day) {
+        return "{\"article_url\":\"" + url + "\",\"title\":\"Apple\",\"description\":\"" + description
+                + "\",\"published_utc\":\"" + day + "T12:00:00Z\",\"publisher\":{\"name\":\"Fixture\"},"
+                + "\"tickers\":[\"AAPL\"]}";
+    }
+}
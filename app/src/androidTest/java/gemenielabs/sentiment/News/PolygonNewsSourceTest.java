@@ -0,0 +1,194 @@
+package gemenielabs.sentiment.News;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import gemenielabs.sentiment.Room.NewsDetails;
+import gemenielabs.sentiment.Room.NewsSyncState;
+import gemenielabs.sentiment.Room.StockDao;
+import gemenielabs.sentiment.Room.StockDatabase;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs PolygonNewsSource into a NewsStore against a local stand-in for Polygon's news endpoint. It pages the articles
+ * newest first, PAGE_SIZE at a time, honouring published_utc.gt and a numeric cursor.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PolygonNewsSourceTest {
+
+    private static final int PAGE_SIZE = 5;
+
+    // published_utc of every article the server has, newest first
+    private final List<String> articles = new ArrayList<>();
+    private volatile boolean failing;
+    private MockWebServer server;
+    private StockDatabase db;
+    private StockDao dao;
+
+    @Before
+    public void setUp() throws Exception {
+        for (int day = 12; day >= 1; day--) {
+            articles.add(published(day));
+        }
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return page(request.getRequestUrl());
+            }
+        });
+        server.start();
+        db = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), StockDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        dao = db.stockDao();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        db.close();
+        server.shutdown();
+    }
+
+    @Test
+    public void resumesFromCursorAfterBudget() throws Exception {
+        PolygonNewsSource source = newSource(2);
+
+        fetch(source, "AAPL");
+        assertEquals(2, server.getRequestCount());
+        NewsSyncState state = dao.getNewsSyncState("AAPL");
+        assertEquals(10, dao.getNewsDetails("AAPL").size());
+        assertNotNull(state.getCursor());
+        assertNull(state.getHighWaterMark());
+
+        fetch(source, "AAPL");
+        state = dao.getNewsSyncState("AAPL");
+        assertEquals(12, dao.getNewsDetails("AAPL").size());
+        assertNull(state.getCursor());
+        assertEquals(published(12), state.getHighWaterMark());
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void fetchesOnlyNewerArticles() throws Exception {
+        PolygonNewsSource source = newSource(5);
+        fetch(source, "AAPL");
+        assertEquals(3, server.getRequestCount());
+
+        articles.add(0, published(13));
+        articles.add(0, published(14));
+        fetch(source, "AAPL");
+        assertEquals(4, server.getRequestCount());
+
+        assertEquals(14, dao.getNewsDetails("AAPL").size());
+        assertEquals(published(14), dao.getNewsSyncState("AAPL").getHighWaterMark());
+        for (int i = 0; i < 3; i++) {
+            server.takeRequest();
+        }
+        HttpUrl incremental = server.takeRequest().getRequestUrl();
+        assertEquals(published(12), incremental.queryParameter("published_utc.gt"));
+        assertEquals("KEY", incremental.queryParameter("apiKey"));
+    }
+
+    @Test
+    public void keepsCursorWhenPageFails() throws Exception {
+        fetch(newSource(1), "AAPL");
+        String cursor = dao.getNewsSyncState("AAPL").getCursor();
+
+        failing = true;
+        try {
+            fetch(newSource(5), "AAPL");
+            fail("Expected the failed page to be reported");
+        } catch (IOException expected) {
+            // The state is left as the last page read
+        }
+        assertEquals(cursor, dao.getNewsSyncState("AAPL").getCursor());
+
+        failing = false;
+        fetch(newSource(5), "AAPL");
+        assertEquals(4, server.getRequestCount());
+        assertEquals(12, dao.getNewsDetails("AAPL").size());
+        assertEquals(published(12), dao.getNewsSyncState("AAPL").getHighWaterMark());
+    }
+
+    @Test
+    public void linksMentionedTickers() throws Exception {
+        fetch(newSource(5), "AAPL");
+
+        List<NewsDetails> shared = dao.getNewsDetails("MSFT");
+        assertEquals(12, shared.size());
+        assertEquals("MSFT", shared.get(0).getNewsTicker());
+        // MSFT finds every story already stored, so its sync stores nothing new
+        fetch(newSource(5), "MSFT");
+        assertEquals(12, dao.getNewsDetails("AAPL").size());
+        assertEquals(12, dao.getNewsDetails("MSFT").size());
+    }
+
+    private PolygonNewsSource newSource(int pageBudget) {
+        String url = server.url("/").toString();
+        return new PolygonNewsSource(dao, url.substring(0, url.length() - 1), "KEY", pageBudget, PAGE_SIZE);
+    }
+
+    private void fetch(PolygonNewsSource source, String ticker) throws IOException {
+        NewsStore store = new NewsStore(dao, ticker);
+        source.fetch(ticker, "2026-01-01", "2026-10-17", store);
+        store.checkpoint();
+    }
+
+    private MockResponse page(HttpUrl url) {
+        if (!"KEY".equals(url.queryParameter("apiKey"))) {
+            return new MockResponse().setResponseCode(401);
+        }
+        if (failing) {
+            return new MockResponse().setResponseCode(500);
+        }
+        String after = url.queryParameter("published_utc.gt");
+        String cursor = url.queryParameter("cursor");
+        int offset = cursor == null ? 0 : Integer.parseInt(cursor);
+
+        List<String> matching = new ArrayList<>();
+        for (String article : articles) {
+            if (after == null || article.compareTo(after) > 0) {
+                matching.add(article);
+            }
+        }
+        StringBuilder body = new StringBuilder("{\"status\":\"OK\",\"results\":[");
+        int end = Math.min(offset + PAGE_SIZE, matching.size());
+        for (int i = offset; i < end; i++) {
+            if (i > offset) {
+                body.append(',');
+            }
+            body.append("{\"article_url\":\"https://news.example/").append(matching.get(i))
+                    .append("\",\"title\":\"Story\",\"published_utc\":\"").append(matching.get(i))
+                    .append("\",\"publisher\":{\"name\":\"Example\"},\"tickers\":[\"AAPL\",\"MSFT\"]}");
+        }
+        body.append(']');
+        if (end < matching.size()) {
+            // Like Polygon, the cursor carries the query but not the key
+            HttpUrl.Builder next = url.newBuilder().removeAllQueryParameters("apiKey")
+                    .setQueryParameter("cursor", String.valueOf(end));
+            body.append(",\"next_url\":\"").append(next.build()).append('"');
+        }
+        return new MockResponse().setBody(body.append('}').toString());
+    }
+
+    private static String published(int day) {
+        return String.format("2026-10-%02dT10:00:00Z", day);
+    }
+}
@@ -0,0 +1,179 @@
+package gemenielabs.sentiment.Tokenizer;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the trie-backed WordpieceTokenizer against the substring and containsKey longest-match
+ * it replaced, for both tokenize and encodeWord.
+ */
+@RunWith(AndroidJUnit4.class)
+public class WordpieceTokenizerTest {
+
+    private static final String[] VOCAB = {
+            "[PAD]", "[UNK]", "[CLS]", "[SEP]",
+            "un", "##aff", "##able", "aff", "able", "a", "##a", "##b", "b", "ab", "##ab",
+            "stock", "##s", "rose", "fell", "market", "##et", "mark", "##ing", "earn", "##ings",
+            "apple", "app", "##le", "##l", "##e", "iphone", "i", "##phone", "é", "##é"
+    };
+
+    private static final String[] WORDS = {
+            "unaffable", "stocks", "marketing", "earnings", "apples", "iphone", "aaaa", "abab",
+            "bab", "éé", "xyz", "unx", "stockx", "a", "##able", "", "apple"
+    };
+
+    @Test
+    public void goldenPieces() {
+        WordpieceTokenizer tokenizer = new WordpieceTokenizer(vocab(VOCAB));
+        assertEquals(Arrays.asList("un", "##aff", "##able"), tokenizer.tokenize("unaffable"));
+        assertEquals(Arrays.asList("stock", "##s"), tokenizer.tokenize("stocks"));
+        assertEquals(Arrays.asList("market", "##ing"), tokenizer.tokenize("marketing"));
+        assertEquals(Arrays.asList("a", "##a", "##a", "##a"), tokenizer.tokenize("aaaa"));
+        assertEquals(Arrays.asList("[UNK]"), tokenizer.tokenize("unx"));
+        assertEquals(Arrays.asList("[UNK]"), tokenizer.tokenize(repeat('a', 201)));
+        assertEquals(Arrays.asList("stock", "[UNK]", "rose"), tokenizer.tokenize("stock xyz rose"));
+    }
+
+    @Test
+    public void tokenizeMatchesLongestMatch() {
+        Map<String, Integer> vocab = vocab(VOCAB);
+        WordpieceTokenizer tokenizer = new WordpieceTokenizer(vocab);
+        for (String word : WORDS) {
+            assertEquals(word, oldTokenize(vocab, word), tokenizer.tokenize(word));
+        }
+        String longWord = repeat('a', 200);
+        assertEquals(oldTokenize(vocab, longWord), tokenizer.tokenize(longWord));
+        assertEquals(oldTokenize(vocab, longWord + "a"), tokenizer.tokenize(longWord + "a"));
+    }
+
+    @Test
+    public void encodeWordMatchesLongestMatch() {
+        Map<String, Integer> vocab = vocab(VOCAB);
+        WordpieceTokenizer tokenizer = new WordpieceTokenizer(vocab);
+        List<String> words = new ArrayList<>(Arrays.asList(WORDS));
+        words.add(repeat('a', 200));
+        words.add(repeat('a', 201));
+        for (String word : words) {
+            for (int room = 0; room <= 6; room++) {
+                assertEncodes(vocab, tokenizer, word, room);
+            }
+        }
+    }
+
+    @Test
+    public void randomVocabulariesMatchLongestMatch() {
+        String alphabet = "abcé";
+        Random random = new Random(1);
+        for (int round = 0; round < 200; round++) {
+            List<String> entries = new ArrayList<>(Arrays.asList("[UNK]"));
+            int size = 1 + random.nextInt(30);
+            for (int i = 0; i < size; i++) {
+                String piece = randomWord(random, alphabet, 1 + random.nextInt(4));
+                entries.add(random.nextBoolean() ? piece : "##" + piece);
+            }
+            Map<String, Integer> vocab = vocab(entries.toArray(new String[0]));
+            WordpieceTokenizer tokenizer = new WordpieceTokenizer(vocab);
+            for (int i = 0; i < 100; i++) {
+                String word = randomWord(random, alphabet, 1 + random.nextInt(12));
+                assertEquals(word, oldTokenize(vocab, word), tokenizer.tokenize(word));
+                assertEncodes(vocab, tokenizer, word, random.nextInt(8));
+            }
+        }
+    }
+
+    // encodeWord into room free slots after an offset gives the old ids, truncated to fit
+    private static void assertEncodes(Map<String, Integer> vocab, WordpieceTokenizer tokenizer,
+                                      String word, int room) {
+        List<String> pieces = oldTokenize(vocab, word);
+        int offset = 3;
+        int[] ids = new int[offset + room + 2];
+        Arrays.fill(ids, -7);
+        int written = tokenizer.encodeWord("  " + word + " ", 2, 2 + word.length(), ids, offset, offset + room);
+
+        int expected = Math.min(pieces.size(), room);
+        assertEquals(word + " in " + room, expected, written);
+        for (int i = 0; i < expected; i++) {
+            assertEquals(word, (int) vocab.get(pieces.get(i)), ids[offset + i]);
+        }
+        // Nothing is written outside the slots handed over
+        for (int i = 0; i < ids.length; i++) {
+            if (i < offset || i >= offset + room) {
+                assertEquals(word, -7, ids[i]);
+            }
+        }
+    }
+
+    // The substring and containsKey longest-match that WordpieceTokenizer.tokenize used before
+    private static List<String> oldTokenize(Map<String, Integer> dic, String text) {
+        List<String> outputTokens = new ArrayList<>();
+        for (String token : BasicTokenizer.whitespaceTokenize(text)) {
+            if (token.length() > 200) {
+                outputTokens.add("[UNK]");
+                continue;
+            }
+            boolean isBad = false;
+            int start = 0;
+            List<String> subTokens = new ArrayList<>();
+            while (start < token.length()) {
+                String curSubStr = "";
+                int end = token.length();
+                while (start < end) {
+                    String subStr =
+                            (start == 0) ? token.substring(start, end) : "##" + token.substring(start, end);
+                    if (dic.containsKey(subStr)) {
+                        curSubStr = subStr;
+                        break;
+                    }
+                    end--;
+                }
+                if ("".equals(curSubStr)) {
+                    isBad = true;
+                    break;
+                }
+                subTokens.add(curSubStr);
+                start = end;
+            }
+            if (isBad) {
+                outputTokens.add("[UNK]");
+            } else {
+                outputTokens.addAll(subTokens);
+            }
+        }
+        return outputTokens;
+    }
+
+    private static Map<String, Integer> vocab(String[] entries) {
+        Map<String, Integer> vocab = new HashMap<>();
+        for (String entry : entries) {
+            if (!vocab.containsKey(entry)) {
+                vocab.put(entry, vocab.size());
+            }
+        }
+        return vocab;
+    }
+
+    private static String randomWord(Random random, String alphabet, int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+
+    private static String repeat(char ch, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, ch);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,187 @@
+package gemenielabs.sentiment.DataProcessing;
+
+/**
+ * Streaming 64-bit content hash used to dedup articles. It is XXH64 (seed 0) of the
+ * UTF-16LE code units fed in, computed without building the text it covers, so
+ * {@link TextNormalizer#fingerprint(String)} can hash the cleaned body during the clean up scan.
+ *
+ * {@link #simHash(CharSequence)} gives a locality sensitive hash of the same text for spotting
+ * near duplicates, such as one wire story syndicated with small edits.
+ */
+public final class Fingerprint {
+
+    // Two SimHashes this close or closer are treated as the same story; unrelated texts
+    // differ in about 32 bits
+    public static final int NEAR_DUPLICATE_BITS = 6;
+
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+    private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+
+    // 32-byte stripes of 16 chars
+    private static final int STRIPE_CHARS = 16;
+
+    // Words per SimHash feature
+    private static final int SHINGLE = 2;
+
+    private long v1 = PRIME_1 + PRIME_2;
+    private long v2 = PRIME_2;
+    private long v3 = 0;
+    private long v4 = -PRIME_1;
+    private final char[] stripe = new char[STRIPE_CHARS];
+    private int buffered;
+    private long totalChars;
+
+    public void update(char ch) {
+        stripe[buffered++] = ch;
+        totalChars++;
+        if (buffered == STRIPE_CHARS) {
+            v1 = round(v1, lane(stripe, 0));
+            v2 = round(v2, lane(stripe, 4));
+            v3 = round(v3, lane(stripe, 8));
+            v4 = round(v4, lane(stripe, 12));
+            buffered = 0;
+        }
+    }
+
+    public void update(CharSequence text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            update(text.charAt(i));
+        }
+    }
+
+    // Hash of everything fed so far; more text can still be added afterwards
+    public long value() {
+        long hash;
+        if (totalChars >= STRIPE_CHARS) {
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7)
+                    + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        } else {
+            hash = PRIME_5;
+        }
+        hash += totalChars * 2;
+
+        int i = 0;
+        for (; i + 4 <= buffered; i += 4) {
+            hash ^= round(0, lane(stripe, i));
+            hash = Long.rotateLeft(hash, 27) * PRIME_1 + PRIME_4;
+        }
+        if (i + 2 <= buffered) {
+            long word = (stripe[i] | ((long) stripe[i + 1] << 16)) & 0xFFFFFFFFL;
+            hash ^= word * PRIME_1;
+            hash = Long.rotateLeft(hash, 23) * PRIME_2 + PRIME_3;
+            i += 2;
+        }
+        if (i < buffered) {
+            hash ^= (stripe[i] & 0xFF) * PRIME_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME_1;
+            hash ^= (stripe[i] >>> 8) * PRIME_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME_1;
+        }
+        return avalanche(hash);
+    }
+
+    public static long hash(CharSequence text) {
+        Fingerprint fingerprint = new Fingerprint();
+        fingerprint.update(text, 0, text.length());
+        return fingerprint.value();
+    }
+
+    /**
+     * 64-bit SimHash over overlapping two word shingles of the lower-cased letters and digits
+     * in {@code text}. Texts sharing most of their wording end up a few bits apart.
+     *
+     * @return the SimHash, or 0 when the text has no words.
+     */
+    public static long simHash(CharSequence text) {
+        int[] votes = new int[64];
+        long[] recent = new long[SHINGLE];
+        int words = 0;
+        Fingerprint word = new Fingerprint();
+        boolean inWord = false;
+
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            char ch = i < length ? Character.toLowerCase(text.charAt(i)) : ' ';
+            if (Character.isLetterOrDigit(ch)) {
+                word.update(ch);
+                inWord = true;
+                continue;
+            }
+            if (!inWord) {
+                continue;
+            }
+            recent[words % SHINGLE] = word.value();
+            words++;
+            word = new Fingerprint();
+            inWord = false;
+            if (words >= SHINGLE) {
+                vote(votes, shingle(recent, words, SHINGLE));
+            }
+        }
+        if (words == 0) {
+            return 0;
+        }
+        if (words < SHINGLE) {
+            vote(votes, shingle(recent, words, words));
+        }
+
+        long simHash = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (votes[bit] > 0) {
+                simHash |= 1L << bit;
+            }
+        }
+        return simHash;
+    }
+
+    public static boolean nearDuplicate(long simHash, long other) {
+        return simHash != 0 && other != 0 && Long.bitCount(simHash ^ other) <= NEAR_DUPLICATE_BITS;
+    }
+
+    // Order sensitive combination of the last count word hashes
+    private static long shingle(long[] recent, int words, int count) {
+        long hash = 0;
+        for (int i = words - count; i < words; i++) {
+            hash = hash * PRIME_1 + recent[i % SHINGLE];
+        }
+        return avalanche(hash);
+    }
+
+    private static void vote(int[] votes, long feature) {
+        for (int bit = 0; bit < 64; bit++) {
+            votes[bit] += ((feature >>> bit) & 1) != 0 ? 1 : -1;
+        }
+    }
+
+    private static long lane(char[] chars, int from) {
+        return chars[from] | ((long) chars[from + 1] << 16)
+                | ((long) chars[from + 2] << 32) | ((long) chars[from + 3] << 48);
+    }
+
+    private static long round(long accumulator, long input) {
+        accumulator += input * PRIME_2;
+        accumulator = Long.rotateLeft(accumulator, 31);
+        return accumulator * PRIME_1;
+    }
+
+    private static long mergeRound(long accumulator, long value) {
+        accumulator ^= round(0, value);
+        return accumulator * PRIME_1 + PRIME_4;
+    }
+
+    private static long avalanche(long hash) {
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME_3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+}
@@ -13,11 +13,10 @@ import java.io.IOException;
 import java.util.Objects;
 
 import gemenielabs.sentiment.BuildConfig;
+import gemenielabs.sentiment.Network.IoScheduler;
 import gemenielabs.sentiment.R;
 import gemenielabs.sentiment.Room.SymbolDetails;
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
 
 public class SetDailySymbolData {
 
@@ -28,7 +27,6 @@ public class SetDailySymbolData {
         // If the SymbolDetails object is null, create a new one and populate it with data from the Tiingo API
         if (deets == null) {
             deets = new SymbolDetails();
-            OkHttpClient client = new OkHttpClient();
             Log.i("TERMS", terms);
             String string = "https://api.tiingo.com/tiingo/daily/" + terms +
                     "?token=" + BuildConfig.TIINGO_API_KEY;
@@ -37,8 +35,8 @@ public class SetDailySymbolData {
                     .get()
                     .build();
             try {
-                Response response = client.newCall(request).execute();
-                JSONObject jsonObject = new JSONObject(Objects.requireNonNull(response.body()).string());
+                JSONObject jsonObject = new JSONObject(IoScheduler.get().execute(request,
+                        response -> Objects.requireNonNull(response.body()).string()));
 
                 // Set the properties of the SymbolDetails object using data from the Tiingo API
                 deets.setTicker(jsonObject.getString("ticker"));
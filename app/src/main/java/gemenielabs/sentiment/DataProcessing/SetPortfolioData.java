@@ -1,6 +1,5 @@
 package gemenielabs.sentiment.DataProcessing;
 
-import static gemenielabs.sentiment.Fragments.SearchFragment.client;
 import static gemenielabs.sentiment.MainActivity.blockingActionBar;
 import static gemenielabs.sentiment.MainActivity.stockDao;
 
@@ -17,6 +16,7 @@ import java.util.stream.Collectors;
 
 import gemenielabs.sentiment.Helper.JsonReturn;
 import gemenielabs.sentiment.Helper.JsonRow;
+import gemenielabs.sentiment.Network.IoScheduler;
 import gemenielabs.sentiment.Room.CombinedWordDetails;
 import gemenielabs.sentiment.Room.PortfolioDetails;
 import gemenielabs.sentiment.Room.StockDetails;
@@ -24,7 +24,6 @@ import gemenielabs.sentiment.Room.WordCountDetails;
 import okhttp3.MediaType;
 import okhttp3.Request;
 import okhttp3.RequestBody;
-import okhttp3.Response;
 
 public class SetPortfolioData {
 
@@ -38,10 +37,10 @@ public class SetPortfolioData {
             List<PortfolioDetails> deets = stockDao.getPortfolioDetails();
             Log.i("TAG", "DEETS   SIZE  " + deets.size());
 
-            // Create a list of CompletableFuture objects to get predictions asynchronously
+            // Create a list of CompletableFuture objects to get predictions on the I/O threads
 
             List<CompletableFuture<String>> jsonReturns = deets.stream()
-                    .map(detail -> CompletableFuture.supplyAsync(() -> getPrediction(detail.getTicker(), context)))
+                    .map(detail -> IoScheduler.get().supplyAsync(() -> getPrediction(detail.getTicker(), context)))
                     .collect(Collectors.toList());
 
             // Wait for all predictions to be returned
@@ -65,6 +64,7 @@ public class SetPortfolioData {
                     })
                     .filter(Objects::nonNull)
                     .forEach(stockDao::insertPortfolioDetails);
+            Log.i("IO", "Portfolio refresh " + IoScheduler.get().metrics());
         } else {
             // Create new portfolio details object and insert into database
             PortfolioDetails portfolioDetails = new PortfolioDetails("", "", "", "", "");
@@ -142,8 +142,8 @@ public class SetPortfolioData {
                     .post(body)
                     .build();
             Log.i("TAG_prediction_Request:  ", request.toString());
-            Response response = client.newCall(request).execute();
-            prediction = Objects.requireNonNull(response.body()).string();
+            prediction = IoScheduler.get().execute(request,
+                    response -> Objects.requireNonNull(response.body()).string());
             Log.i("TAG_prediction", "PREDICTION  " + prediction);
         } catch (Exception e) {
             e.printStackTrace();
@@ -1,24 +1,17 @@
 package gemenielabs.sentiment.DataProcessing;
 
-import static gemenielabs.sentiment.Fragments.SearchFragment.client;
-
-
 import android.content.Context;
 
 import gemenielabs.sentiment.BuildConfig;
+import gemenielabs.sentiment.Network.IoScheduler;
 import gemenielabs.sentiment.R;
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
 import org.json.JSONArray;
 
 import java.util.ArrayList;
 
 public class SetSearchSymbolData {
 
-    // Create a new OkHttpClient instance
-    private final OkHttpClient client = new OkHttpClient();
-
     // Refactored method to get search data
     public ArrayList<String[]> getSearchData(String terms, Context context) {
         // Build the URL string with the provided search terms and API key
@@ -35,11 +28,8 @@ public class SetSearchSymbolData {
         ArrayList<String[]> searchResults = new ArrayList<>();
 
         try {
-            // Execute the request and get the response
-            Response response = client.newCall(request).execute();
-
-            // Get the response body as a string
-            String responseBody = response.body().string();
+            // Execute the request and get the response body as a string
+            String responseBody = IoScheduler.get().execute(request, response -> response.body().string());
 
             // Parse the response body as a JSONArray
             JSONArray jsonArray = new JSONArray(responseBody);
@@ -11,11 +11,10 @@ import java.time.LocalDate;
 import java.util.List;
 
 import gemenielabs.sentiment.BuildConfig;
+import gemenielabs.sentiment.Network.IoScheduler;
 import gemenielabs.sentiment.R;
 import gemenielabs.sentiment.Room.StockDetails;
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
 import org.json.JSONArray;
 import java.util.Objects;
 import android.util.Log;
@@ -45,7 +44,6 @@ public class SetStockPriceData {
     // Refactored getTiingoData function
     public void getTiingoData(String ticker, String date, String newDate, Context context) {
         try {
-            OkHttpClient client = new OkHttpClient();
             String requestString;
             if (newDate.equals("")) {
                 requestString = "https://api.tiingo.com/tiingo/daily/" + ticker +
@@ -60,8 +58,8 @@ public class SetStockPriceData {
                     .url(requestString)
                     .get()
                     .build();
-            Response response = client.newCall(request).execute();
-            String stringArr = Objects.requireNonNull(response.body()).string();
+            String stringArr = IoScheduler.get().execute(request,
+                    response -> Objects.requireNonNull(response.body()).string());
             JSONArray arr = new JSONArray(stringArr);
             int arrHash = arr.hashCode();
             if (arr.length() > 1) {
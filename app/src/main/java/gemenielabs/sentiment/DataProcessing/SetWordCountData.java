@@ -2,56 +2,89 @@ package gemenielabs.sentiment.DataProcessing;
 
 import static java.lang.Boolean.FALSE;
 import static java.lang.Boolean.TRUE;
-import static gemenielabs.sentiment.Fragments.SearchFragment.client;
 import static gemenielabs.sentiment.MainActivity.stockDao;
 
 import android.content.Context;
 import android.util.Log;
 
-import com.google.gson.Gson;
-
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 
-import java.io.IOException;
 import java.net.SocketTimeoutException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 
+import gemenielabs.sentiment.Engine.BatchingSentimentEngine;
+import gemenielabs.sentiment.Engine.CachedSentimentEngine;
+import gemenielabs.sentiment.Engine.LocalSentimentEngine;
+import gemenielabs.sentiment.Engine.SentenceCache;
+import gemenielabs.sentiment.Engine.SentimentEngine;
 import gemenielabs.sentiment.Helper.JsonReturn;
-import gemenielabs.sentiment.Helper.JsonSend;
-import gemenielabs.sentiment.R;
+import gemenielabs.sentiment.Lexicon.ArticleScore;
+import gemenielabs.sentiment.Lexicon.BatchScorer;
+import gemenielabs.sentiment.Lexicon.PhraseMatcher;
+import gemenielabs.sentiment.Lexicon.WordScanner;
+import gemenielabs.sentiment.Network.IoScheduler;
+import gemenielabs.sentiment.Room.CombinedWordDetails;
 import gemenielabs.sentiment.Room.NewsDetails;
 import gemenielabs.sentiment.Room.WordCountDetails;
-import okhttp3.MediaType;
-import okhttp3.Request;
-import okhttp3.RequestBody;
-import okhttp3.Response;
 
 public class SetWordCountData {
 
-    public static final MediaType JSON = MediaType.parse("application/json");
     private static final String FAIL = "fail";
 
+    // Sentence results shared by every refresh, roughly 100 bytes each
+    private static final SentenceCache SENTENCE_CACHE = new SentenceCache(20000);
+
+    // Shared so articles from every refresh in flight go out in the same batches
+    private static final BatchingSentimentEngine SENTIMENT_SERVICE = new BatchingSentimentEngine();
+
+    // Articles being scored by hash, each completing with its stored row, so tickers refreshed
+    // together that share a story score it once
+    private static final ConcurrentHashMap<String, CompletableFuture<WordCountDetails>> IN_FLIGHT =
+            new ConcurrentHashMap<>();
+
+    // Score syndicated copies of a story only once, matched by SimHash. Off unless set, since a
+    // skipped copy has no row and is checked again on every refresh.
+    private boolean skipNearDuplicates = false;
+
+    public void setSkipNearDuplicates(boolean skipNearDuplicates) {
+        this.skipNearDuplicates = skipNearDuplicates;
+    }
+
+    // Chosen on first use unless set
+    private SentimentEngine sentimentEngine;
+
+    public synchronized void setSentimentEngine(SentimentEngine sentimentEngine) {
+        this.sentimentEngine = sentimentEngine;
+    }
+
     public List<WordCountDetails> setWordCountData(String ticker, List<NewsDetails> list, Context context) {
         // Log statements removed for code conciseness
-    
-        ArrayList<CompletableFuture> articles = new ArrayList<>();
-
 
+        // Bring articles scored with an older lexicon up to date before adding new ones
+        rescoreStaleWordCounts(ticker, context);
+    
         if (list.size() > 0) {
-            ArrayList<CompletableFuture> results = new ArrayList<>();
-            
-            // Process each news article asynchronously
+            IoScheduler.Scope scope = IoScheduler.currentScope();
+            PhraseMatcher matcher = PhraseMatcher.get(context);
+            Admission admission = new Admission(skipNearDuplicates
+                    ? stockDao.getSimHashes(ticker) : new ArrayList<>());
+            List<CompletableFuture<Void>> pipelines = new ArrayList<>();
+
+            // Each article goes through its own stages: body, fingerprint and duplicate checks,
+            // sentiment alongside lexicon scoring, then its row, without waiting on the others.
+            // A story another ticker already scored takes its results from that ticker's row.
             for (NewsDetails news : list) {
                 String newsArticleDate = news.getArticleDate();
                 String url = news.getAddress();
@@ -60,71 +93,21 @@ public class SetWordCountData {
 
                 // Fix until newParsing of article Data is ready
                 String articleDescription = news.getArticleDescription();
-                articles.add(CompletableFuture.supplyAsync(() -> getArticleBody(url, newsArticleDate, articleDescription)));
-            }
-    
-            // Wait until all articles are processed
-            while (articles.size() != list.size()) {
-                // Wait until all articles are processed
+                pipelines.add(IoScheduler.get().supplyAsync(() -> getArticleBody(url, newsArticleDate, articleDescription))
+                        .thenApply(body -> admit(ticker, body, admission))
+                        .thenCompose(article -> article == null
+                                ? CompletableFuture.<Void>completedFuture(null)
+                                : scoreArticle(ticker, article, matcher, scope, context))
+                        .exceptionally(e -> {
+                            if (scope == null || !scope.isCancelled()) {
+                                e.printStackTrace();
+                            }
+                            return null;
+                        }));
             }
-    
-            HashMap<String, String[]> Hash_Article_Date = new HashMap<>();
 
-    
-            // Process the articles and gather information
-            for (CompletableFuture future : articles) {
-                String[] body = new String[0];
-                try {
-                    body = (String[]) future.get();
-                } catch (ExecutionException | InterruptedException e) {
-                    e.printStackTrace();
-                }
-    
-                // Remove numbers and percentages from the article body
-                String replaceNumbers = body[0].replaceAll("-*\\+*\\d*.\\d*%", "");
-
-                int hash = replaceNumbers.hashCode();
-    
-                // Check if the article body has been processed before and skip if sentiment is available
-                WordCountDetails isHere = stockDao.getSingleHashedWordCountDetails(ticker, hash);
-                if (isHere != null ) {
-                    continue;
-                }
-    
-                // Add the article body to the HashMap if sentiment is not available and speed limit is not reached
-                if (!body[0].equals(FAIL)) {
-                    Hash_Article_Date.put(String.valueOf(hash), body);
-                }
-            }
-    
-            // Process the article bodies to get sentiment asynchronously
-            for (String key : Hash_Article_Date.keySet()) {
-                String[] bodyWithHash = {key, Hash_Article_Date.get(key)[0]};
-
-                results.add(CompletableFuture.supplyAsync(() -> getSentiment(bodyWithHash, context)));
-            }
-    
-            // Wait until all results are processed
-            while (Hash_Article_Date.size() != results.size()) {
-                // Wait until all results are processed
-            }
-    
-            // Insert word count details into the database
-            for (CompletableFuture future : results) {
-                String returns = null;
-                try {
-                    returns = (String) future.get();
-                } catch (ExecutionException | InterruptedException e) {
-                    e.printStackTrace();
-                }
-
-                for (Map.Entry<String, String[]> entry : Hash_Article_Date.entrySet()) {
-                    System.out.println(entry.getKey() + "=" + Arrays.toString(entry.getValue()));
-                }
-                WordCountDetails wordCountDetails = createWordCountDetails(ticker, returns, Hash_Article_Date, context);
-                Log.i("TAG", "SetWordCountData WordCountDetails" + wordCountDetails);
-                stockDao.insertWordCountContent(wordCountDetails);
-            }
+            // Rows are stored as each article finishes, this only waits for the last one
+            CompletableFuture.allOf(pipelines.toArray(new CompletableFuture[0])).join();
         }
     
         // Retrieve word count details from the database
@@ -139,35 +122,100 @@ public class SetWordCountData {
         return wordCountDetailsList;
     }
     
+    // Sentiment and lexicon scoring, or the results of another ticker that scored the same story
+    private CompletableFuture<Void> scoreArticle(String ticker, String[] article, PhraseMatcher matcher,
+                                                 IoScheduler.Scope scope, Context context) {
+        long hash = Long.parseLong(article[0]);
+        CompletableFuture<WordCountDetails> claim = new CompletableFuture<>();
+        CompletableFuture<WordCountDetails> other = IN_FLIGHT.putIfAbsent(article[0], claim);
+        if (other != null) {
+            // Copy the other ticker's row once stored, score it here if it has none. The claim
+            // may come from an overlapping refresh of this ticker, which stored the row itself.
+            return other.thenCompose(row -> {
+                if (stockDao.getSingleHashedWordCountDetails(ticker, hash) != null) {
+                    return CompletableFuture.<Void>completedFuture(null);
+                }
+                if (row == null) {
+                    return scoreArticle(ticker, article, matcher, scope, context);
+                }
+                shareWordCountDetails(ticker, row, article, scope);
+                return CompletableFuture.<Void>completedFuture(null);
+            });
+        }
+
+        // Looked up after the claim, so a row stored by a refresh that just finished is seen,
+        // including one of this ticker
+        WordCountDetails own = stockDao.getSingleHashedWordCountDetails(ticker, hash);
+        CompletableFuture<WordCountDetails> stored;
+        if (own != null) {
+            stored = CompletableFuture.completedFuture(own);
+        } else {
+            WordCountDetails scored = stockDao.getScoredWordCountDetails(hash);
+            stored = scored != null
+                    ? CompletableFuture.completedFuture(shareWordCountDetails(ticker, scored, article, scope))
+                    : getSentimentAsync(new String[]{article[0], article[1]}, context)
+                            .thenCombine(BatchScorer.scoreAsync(matcher, article[1]),
+                                    (returns, score) -> storeWordCountDetails(ticker, returns, article, score, scope));
+        }
+        return stored.whenComplete((row, e) -> {
+            IN_FLIGHT.remove(article[0], claim);
+            claim.complete(row == null || FAIL.equals(row.getSentiment()) ? null : row);
+        }).thenApply(row -> null);
+    }
+
+    // Sentiment and lexicon counts come from the other ticker's row, price moves are this ticker's
+    private WordCountDetails shareWordCountDetails(String ticker, WordCountDetails scored, String[] article,
+                                                   IoScheduler.Scope scope) {
+        String returns = article[0] + " " + scored.getSentiment() + " " + scored.getSentimentNumber();
+        ArticleScore score = new ArticleScore(scored.getPositive(), scored.getNegative(),
+                scored.getTermFrequencies(), scored.getLexiconVersion());
+        return storeWordCountDetails(ticker, returns, article, score, scope);
+    }
+
+    // Last stage of an article: its row, unless the refresh was cancelled and the result is
+    // only a request cut short
+    private WordCountDetails storeWordCountDetails(String ticker, String returns, String[] article,
+                                                   ArticleScore score, IoScheduler.Scope scope) {
+        if (scope != null && scope.isCancelled()) {
+            return null;
+        }
+        WordCountDetails wordCountDetails = createWordCountDetails(ticker, returns, article, score);
+        Log.i("TAG", "SetWordCountData WordCountDetails" + wordCountDetails);
+        stockDao.insertWordCountContent(wordCountDetails);
+        return wordCountDetails;
+    }
+
     // Create WordCountDetails object based on the sentiment analysis results
-    private WordCountDetails createWordCountDetails(String ticker, String returns, HashMap<String, String[]> hashArticleDate, Context context) {
+    private WordCountDetails createWordCountDetails(String ticker, String returns, String[] article, ArticleScore score) {
         WordCountDetails wordCountDetails = new WordCountDetails(" ", 0, " ",
                 0, 0, 0, 0, 0, "",
                 "", 0);
 
         String[] resultsString = returns.split(" ");
 
-        String body = hashArticleDate.get(resultsString[0])[0];
-        String date = hashArticleDate.get(resultsString[0])[1];
+        String body = article[1];
+        String date = article[2];
     
         // Set WordCountDetails properties based on sentiment analysis results
         if (resultsString[1].equals(FAIL)) {
             wordCountDetails.setSentiment(FAIL);
             wordCountDetails.setDate(date);
             wordCountDetails.setBody(body);
-            wordCountDetails.setHash(Integer.valueOf(resultsString[0]));
+            wordCountDetails.setFingerprint(Long.parseLong(resultsString[0]));
             stockDao.insertWordCountContent(wordCountDetails);
             return wordCountDetails;
         }
     
-        int[] words = recordWordCounts(context, body);
         wordCountDetails.setSentiment(resultsString[1]);
         wordCountDetails.setSentimentNumber(Double.parseDouble(resultsString[2]));
         wordCountDetails.setDate(date.substring(0, 10));
         wordCountDetails.setTicker(ticker);
-        wordCountDetails.setNegative(words[1]);
-        wordCountDetails.setPositive(words[0]);
-        wordCountDetails.setHash(Integer.valueOf(resultsString[0]));
+        wordCountDetails.setNegative(score.getNegative());
+        wordCountDetails.setPositive(score.getPositive());
+        wordCountDetails.setFingerprint(Long.parseLong(resultsString[0]));
+        wordCountDetails.setSimHash(Fingerprint.simHash(body));
+        wordCountDetails.setTermFrequencies(score.getTermFrequencies());
+        wordCountDetails.setLexiconVersion(score.getLexiconVersion());
         double next = createPercentageGainLoss(ticker, date, 0);
         double wks = createPercentageGainLoss(ticker, date, 14);
         double mnth = createPercentageGainLoss(ticker, date, 28);
@@ -178,6 +226,98 @@ public class SetWordCountData {
         return wordCountDetails;
     }
     
+    // Fingerprint and duplicate checks: returns {hash, body, date} for an article still to be
+    // scored, or null to drop it
+    private String[] admit(String ticker, String[] body, Admission admission) {
+        // Fingerprint the article body with numbers and percentages removed
+        long hash = TextNormalizer.fingerprint(body[0]);
+
+        // Check if the article body has been processed before and skip if sentiment is available
+        WordCountDetails isHere = stockDao.getSingleHashedWordCountDetails(ticker, hash);
+        if (isHere != null || body[0].equals(FAIL)) {
+            return null;
+        }
+        long simHash = skipNearDuplicates ? Fingerprint.simHash(body[0]) : 0;
+        if (!admission.claim(hash, simHash, skipNearDuplicates)) {
+            return null;
+        }
+        return new String[]{String.valueOf(hash), body[0], body[1]};
+    }
+
+    // What the articles of one refresh have claimed so far, shared by their pipelines
+    private static final class Admission {
+        private final Set<Long> hashes = new HashSet<>();
+        private final List<Long> simHashes;
+
+        Admission(List<Long> storedSimHashes) {
+            simHashes = new ArrayList<>(storedSimHashes);
+        }
+
+        synchronized boolean claim(long hash, long simHash, boolean checkNearDuplicates) {
+            if (hashes.contains(hash)) {
+                return false;
+            }
+            if (checkNearDuplicates) {
+                if (isNearDuplicate(simHash, simHashes)) {
+                    return false;
+                }
+                simHashes.add(simHash);
+            }
+            hashes.add(hash);
+            return true;
+        }
+    }
+
+    private static boolean isNearDuplicate(long simHash, List<Long> simHashes) {
+        for (long other : simHashes) {
+            if (Fingerprint.nearDuplicate(simHash, other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Rescore stored articles whose counts came from a different lexicon version
+    public void rescoreStaleWordCounts(String ticker, Context context) {
+        PhraseMatcher matcher = PhraseMatcher.get(context);
+        List<WordCountDetails> stale = stockDao.getStaleWordCountDetails(ticker, matcher.version());
+        if (stale.size() == 0) {
+            return;
+        }
+        Log.i("TAG", "SetWordCountData rescoring " + stale.size() + " articles");
+
+        CharSequence[] bodies = new CharSequence[stale.size()];
+        for (int i = 0; i < bodies.length; i++) {
+            String body = stale.get(i).getBody();
+            bodies[i] = body == null ? "" : body;
+        }
+        List<ArticleScore> scores = BatchScorer.scoreBodies(matcher, bodies);
+
+        List<String> dates = new ArrayList<>();
+        for (int i = 0; i < stale.size(); i++) {
+            WordCountDetails details = stale.get(i);
+            ArticleScore score = scores.get(i);
+            details.setPositive(score.getPositive());
+            details.setNegative(score.getNegative());
+            details.setTermFrequencies(score.getTermFrequencies());
+            details.setLexiconVersion(score.getLexiconVersion());
+            stockDao.insertWordCountContent(details);
+            if (!dates.contains(details.getDate())) {
+                dates.add(details.getDate());
+            }
+        }
+
+        // Combined rows are only built for dates without one, so drop the affected dates
+        List<CombinedWordDetails> combined = new ArrayList<>();
+        for (String date : dates) {
+            CombinedWordDetails details = stockDao.getCombinedWordDetailsDate(ticker, date);
+            if (details != null) {
+                combined.add(details);
+            }
+        }
+        stockDao.deleteByCombinedWordDetails(combined);
+    }
+
     // Create a default WordCountDetails entry for cases with no news data
     private void createNoNewsWordCountDetail(String ticker) {
         WordCountDetails wordCountDetails = new WordCountDetails(" ", 0, " ",
@@ -186,7 +326,7 @@ public class SetWordCountData {
         String noNewsData = "No News Data";
         wordCountDetails.setTicker(ticker);
         wordCountDetails.setSentiment(noNewsData);
-        wordCountDetails.setHash(noNewsData.hashCode());
+        wordCountDetails.setFingerprint(TextNormalizer.fingerprint(noNewsData));
         LocalDate date = LocalDate.now();
         wordCountDetails.setDate(date.toString());
         stockDao.insertWordCountContent(wordCountDetails);
@@ -201,7 +341,7 @@ public class SetWordCountData {
                     .url(url)
                     .get()
                     .build();
-            Response response = client.newCall(request).execute();
+            Response response = IoScheduler.client().newCall(request).execute();
             Document doc = Jsoup.parse(Objects.requireNonNull(response.body()).string());
             body[0] = Objects.requireNonNull(doc.getElementById("js-article__body")).text();
         } catch (Exception e) {
@@ -214,33 +354,9 @@ public class SetWordCountData {
     
     // Record word counts for positive and negative words in the article body
     public int[] recordWordCounts(Context context, String body) {
-        String alphabet = "abcdefghijklmnopqrstuvwxyz";
-        String[] positive = new String[0];
-        String[] negative = new String[0];;
-        int pos = 0;
-        int neg = 0;
-        String[] articleBody = body.split(" ");
-        Arrays.sort(articleBody);
-        String holder = "a";
-        for (String word : articleBody) {
-            String lowerWord = word.toLowerCase().replaceAll("[^a-zA-Z]", "");
-            if (lowerWord.length() > 1) {
-                String firstLetter = lowerWord.substring(0, 1);
-                if (!firstLetter.equals(holder)) {
-                    holder = firstLetter;
-                    positive = context.getResources().getStringArray(positive_word_ids[alphabet.indexOf(holder)]);
-                    negative = context.getResources().getStringArray(negative_word_ids[alphabet.indexOf(holder)]);
-                }
-                if (Arrays.asList(positive).contains(lowerWord)) {
-                    pos++;
-                }
-                if (Arrays.asList(negative).contains(lowerWord)) {
-                    neg++;
-                }
-            }
-        }
-
-        return new int[]{pos, neg};
+        int[] counts = new int[2];
+        WordScanner.get().count(PhraseMatcher.get(context), body, counts, null);
+        return counts;
     }
     
     // Calculate the percentage gain/loss for the specified ticker and date
@@ -277,54 +393,32 @@ public class SetWordCountData {
         return finalChange;
     }
     
-    // Get sentiment analysis for the given article body
-    public String getSentiment(String[] body, Context context) {
-        String alpha = body[1].replaceAll("\"", "").replaceAll("'", "").replaceAll(",", "").replaceAll("’", "");
-        String[] alphaSplit = alpha.split("(?<!\\w\\.\\w.)(?<!([A-Z][a-z])\\{30,\\}\\.)(?<=[.?])\\s");
+    // Get sentiment analysis for the given article body without waiting, so many articles can
+    // share one request
+    public CompletableFuture<String> getSentimentAsync(String[] body, Context context) {
+        String[] alphaSplit = TextNormalizer.sentences(body[1]);
         String hashString = body[0];
-        JsonSend sourceArray = new JsonSend(alphaSplit, hashString);
-        String jString = new Gson().toJson(sourceArray);
-        /*
-        Log.i("jString", alphaSplit[0]);
-
-        BertNLClassifier.BertNLClassifierOptions options =
-                BertNLClassifier.BertNLClassifierOptions.builder()
-                        .setBaseOptions(BaseOptions.builder().setNumThreads(4).build())
-                        .build();
-        BertNLClassifier classifier =
-                null;
-        try {
-            classifier = BertNLClassifier.createFromFileAndOptions(context, "model.tflite", options);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-
+        return sentimentEngine(context).classifyAsync(hashString, alphaSplit)
+                .thenApply(this::convertToList)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    // Timeouts are expected, cancellations mean the screen went away
+                    if (!(cause instanceof SocketTimeoutException || cause instanceof CancellationException)) {
+                        e.printStackTrace();
+                    }
+                    return hashString + " " + FAIL + " " + body[1];
+                });
+    }
 
-        List<Category> results = classifier.classify(alphaSplit[0]);
-        Log.i("Results", String.valueOf(results.get(0)));
-        */
-        String url = "https://stocks-backend-sentiment-f3jmjyxrpq-uc.a.run.app";
-        String prediction = "";
-        try {
-            RequestBody r_body = RequestBody.create(JSON, jString);
-            Request request = new Request.Builder()
-                    .url(url)
-                    .post(r_body)
-                    .build();
-            Response response = client.newCall(request).execute();
-            String bodyOfResponse = response.body().string();
-            prediction = convertToList(new Gson().fromJson(bodyOfResponse, JsonReturn.class));
-            response.close();
-        } catch (SocketTimeoutException e) {
-            return hashString + " " + FAIL + " " + body[1];
-        } catch (Exception e) {
-            e.printStackTrace();
-            return hashString + " " + FAIL + " " + body[1];
+    // The on-device model when the app ships one, the sentiment service otherwise, sending
+    // only sentences not classified on an earlier refresh
+    private synchronized SentimentEngine sentimentEngine(Context context) {
+        if (sentimentEngine == null) {
+            SentimentEngine local = LocalSentimentEngine.get(context);
+            sentimentEngine = new CachedSentimentEngine(local != null ? local : SENTIMENT_SERVICE,
+                    SENTENCE_CACHE);
         }
-
-        return prediction;
-
-
+        return sentimentEngine;
     }
     
     // Convert the sentiment analysis results to a formatted string
@@ -343,62 +437,5 @@ public class SetWordCountData {
         System.out.println("TAG_setWordCountData_prediction: " + returnString);
         return prediction.getHash() + " " + returnString;
     }
-    
-
-    int[] positive_word_ids = {
-            R.array.positive_words_a,
-            R.array.positive_words_b,
-            R.array.positive_words_c,
-            R.array.positive_words_d,
-            R.array.positive_words_e,
-            R.array.positive_words_f,
-            R.array.positive_words_g,
-            R.array.positive_words_h,
-            R.array.positive_words_i,
-            R.array.positive_words_j,
-            R.array.positive_words_k,
-            R.array.positive_words_l,
-            R.array.positive_words_m,
-            R.array.positive_words_n,
-            R.array.positive_words_o,
-            R.array.positive_words_p,
-            R.array.positive_words_q,
-            R.array.positive_words_r,
-            R.array.positive_words_s,
-            R.array.positive_words_t,
-            R.array.positive_words_u,
-            R.array.positive_words_v,
-            R.array.positive_words_w,
-            R.array.positive_words_x,
-            R.array.positive_words_y,
-            R.array.positive_words_z};
-
-    int[] negative_word_ids = {
-            R.array.negative_words_a,
-            R.array.negative_words_b,
-            R.array.negative_words_c,
-            R.array.negative_words_d,
-            R.array.negative_words_e,
-            R.array.negative_words_f,
-            R.array.negative_words_g,
-            R.array.negative_words_h,
-            R.array.negative_words_i,
-            R.array.negative_words_j,
-            R.array.negative_words_k,
-            R.array.negative_words_l,
-            R.array.negative_words_m,
-            R.array.negative_words_n,
-            R.array.negative_words_o,
-            R.array.negative_words_p,
-            R.array.negative_words_q,
-            R.array.negative_words_r,
-            R.array.negative_words_s,
-            R.array.negative_words_t,
-            R.array.negative_words_u,
-            R.array.negative_words_v,
-            R.array.negative_words_w,
-            R.array.negative_words_x,
-            R.array.negative_words_y,
-            R.array.negative_words_z};
 
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package gemenielabs.sentiment.DataProcessing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single pass replacements for the regex clean up done on every article body. The clean up
+ * methods give exactly the strings the old replaceAll/split chains gave, so the sentences sent
+ * to the sentiment service stay the same.
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Same result as {@code body.replaceAll("-*\\+*\\d*.\\d*%", "")}, the clean up applied
+     * before an article is hashed.
+     */
+    public static String stripPercentages(String body) {
+        // Every match ends in a '%', so there is nothing to do for most articles
+        if (body.indexOf('%') < 0) {
+            return body;
+        }
+        StringBuilder builder = new StringBuilder(body.length());
+        strip(body, builder, null);
+        return builder.toString();
+    }
+
+    /**
+     * {@link Fingerprint} of {@link #stripPercentages(String)}, hashed during the same scan
+     * without building the stripped text.
+     */
+    public static long fingerprint(String body) {
+        Fingerprint fingerprint = new Fingerprint();
+        strip(body, null, fingerprint);
+        return fingerprint.value();
+    }
+
+    /**
+     * Same result as removing {@code " ' , ’} from {@code body} and then splitting it with
+     * {@code (?<!\w\.\w.)(?<!([A-Z][a-z])\{30,\}\.)(?<=[.?])\s}: a sentence ends at whitespace
+     * after a '.' or '?', unless the text before looks like an abbreviation such as "U.S.".
+     * The second look-behind needs a literal ',' and can never fire once commas are gone.
+     */
+    public static String[] sentences(String body) {
+        int length = body.length();
+        char[] cleaned = new char[length];
+        int size = 0;
+        int sentenceStart = 0;
+        List<String> sentences = new ArrayList<>();
+
+        for (int i = 0; i < length; i++) {
+            char ch = body.charAt(i);
+            if (ch == '"' || ch == '\'' || ch == ',' || ch == '’') {
+                continue;
+            }
+            if (isSpace(ch) && endsSentence(cleaned, size)) {
+                sentences.add(new String(cleaned, sentenceStart, size - sentenceStart));
+                sentenceStart = size + 1;
+            }
+            cleaned[size++] = ch;
+        }
+
+        // String.split drops the trailing empty string left by a final separator
+        if (sentenceStart < size || sentences.isEmpty()) {
+            sentences.add(new String(cleaned, sentenceStart, size - sentenceStart));
+        }
+        return sentences.toArray(new String[0]);
+    }
+
+    // Passes every stretch of body kept by the percentage clean up to builder or fingerprint
+    private static void strip(String body, StringBuilder builder, Fingerprint fingerprint) {
+        int lastPercent = body.lastIndexOf('%');
+        int copied = 0;
+        int start = 0;
+        while (start < lastPercent) {
+            int end = percentMatchEnd(body, start);
+            if (end < 0) {
+                start++;
+                continue;
+            }
+            keep(body, copied, start, builder, fingerprint);
+            copied = end;
+            start = end;
+        }
+        keep(body, copied, body.length(), builder, fingerprint);
+    }
+
+    private static void keep(String body, int from, int to, StringBuilder builder, Fingerprint fingerprint) {
+        if (builder != null) {
+            builder.append(body, from, to);
+        } else {
+            fingerprint.update(body, from, to);
+        }
+    }
+
+    // Follows the regex's backtracking order: -* \+* \d* and the later \d* give back one
+    // character at a time, so the first match found is the one replaceAll would remove
+    private static int percentMatchEnd(String s, int start) {
+        int dashes = run(s, start, '-');
+        for (int a = dashes; a >= 0; a--) {
+            int afterDashes = start + a;
+            int pluses = run(s, afterDashes, '+');
+            for (int b = pluses; b >= 0; b--) {
+                int afterPluses = afterDashes + b;
+                int digits = digitRun(s, afterPluses);
+                for (int c = digits; c >= 0; c--) {
+                    int any = afterPluses + c;
+                    if (any >= s.length() || isLineTerminator(s.charAt(any))) {
+                        continue;
+                    }
+                    int percent = any + 1 + digitRun(s, any + 1);
+                    if (percent < s.length() && s.charAt(percent) == '%') {
+                        return percent + 1;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean endsSentence(char[] cleaned, int end) {
+        if (end < 1 || (cleaned[end - 1] != '.' && cleaned[end - 1] != '?')) {
+            return false;
+        }
+        return !(end >= 4 && isWordChar(cleaned[end - 4]) && cleaned[end - 3] == '.'
+                && isWordChar(cleaned[end - 2]));
+    }
+
+    private static int run(String s, int from, char ch) {
+        int i = from;
+        while (i < s.length() && s.charAt(i) == ch) {
+            i++;
+        }
+        return i - from;
+    }
+
+    private static int digitRun(String s, int from) {
+        int i = from;
+        while (i < s.length() && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+            i++;
+        }
+        return i - from;
+    }
+
+    // \s without UNICODE_CHARACTER_CLASS
+    private static boolean isSpace(char ch) {
+        return ch == ' ' || ch == '\t' || ch == '\n' || ch == '\u000B' || ch == '\f' || ch == '\r';
+    }
+
+    // \w without UNICODE_CHARACTER_CLASS
+    private static boolean isWordChar(char ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9') || ch == '_';
+    }
+
+    // Characters '.' does not match without DOTALL
+    private static boolean isLineTerminator(char ch) {
+        return ch == '\n' || ch == '\r' || ch == '\u0085' || ch == '\u2028' || ch == '\u2029';
+    }
+}
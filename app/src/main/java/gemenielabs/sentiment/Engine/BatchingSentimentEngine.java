@@ -0,0 +1,227 @@
+package gemenielabs.sentiment.Engine;
+
+import android.util.Log;
+
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import gemenielabs.sentiment.Helper.JsonBatchReturn;
+import gemenielabs.sentiment.Helper.JsonBatchSend;
+import gemenielabs.sentiment.Helper.JsonReturn;
+import gemenielabs.sentiment.Helper.JsonSend;
+import gemenielabs.sentiment.Network.IoScheduler;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+
+/**
+ * Collects articles from concurrent callers and sends them to the sentiment service's batch
+ * endpoint as one {"items": [{hash, text[]}, ...]} request, answered by
+ * {"results": [JsonReturn, ...]} which are handed back to each caller by hash.
+ *
+ * A batch goes out once it holds {@code maxArticles} articles or about {@code maxChars}
+ * characters of text, or {@code maxDelayMillis} after its first article, whichever comes first.
+ * If the service has no batch endpoint the articles are sent one by one through
+ * {@link HttpSentimentEngine} and batching stays off from then on.
+ */
+public final class BatchingSentimentEngine implements SentimentEngine {
+
+    public static final String BATCH_PATH = "/batch";
+
+    public static final int MAX_ARTICLES = 32;
+    public static final int MAX_CHARS = 256 * 1024;
+    public static final long MAX_DELAY_MILLIS = 100;
+
+    // Fires the time based flushes; daemon so it never keeps the process alive
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sentiment-batcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Stands for a 404 or 405 from the batch path
+    private static final JsonBatchReturn NO_BATCH_ENDPOINT = new JsonBatchReturn();
+
+    private final Gson gson = new Gson();
+    private final String batchUrl;
+    private final SentimentEngine single;
+    private final int maxArticles;
+    private final int maxChars;
+    private final long maxDelayMillis;
+
+    private List<Pending> batch = new ArrayList<>();
+    private int batchChars;
+    private volatile boolean batchUnsupported;
+
+    public BatchingSentimentEngine() {
+        this(HttpSentimentEngine.URL, MAX_ARTICLES, MAX_CHARS, MAX_DELAY_MILLIS);
+    }
+
+    public BatchingSentimentEngine(String url, int maxArticles, int maxChars, long maxDelayMillis) {
+        this.batchUrl = url + BATCH_PATH;
+        this.single = new HttpSentimentEngine(url);
+        this.maxArticles = maxArticles;
+        this.maxChars = maxChars;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    @Override
+    public JsonReturn classify(String hash, String[] sentences) throws IOException {
+        try {
+            return classifyAsync(hash, sentences).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<JsonReturn> classifyAsync(String hash, String[] sentences) {
+        if (batchUnsupported) {
+            return IoScheduler.get().supplyDetached(() -> {
+                try {
+                    return single.classify(hash, sentences);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            });
+        }
+        Pending pending = new Pending(hash, sentences);
+        List<Pending> full = null;
+        synchronized (this) {
+            if (batch.isEmpty()) {
+                List<Pending> started = batch;
+                TIMER.schedule(() -> flush(started), maxDelayMillis, TimeUnit.MILLISECONDS);
+            }
+            batch.add(pending);
+            batchChars += pending.chars;
+            if (batch.size() >= maxArticles || batchChars >= maxChars) {
+                full = batch;
+                batch = new ArrayList<>();
+                batchChars = 0;
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+        return pending.result;
+    }
+
+    // Timer side: sends the batch unless it already went out for being full
+    private void flush(List<Pending> started) {
+        synchronized (this) {
+            if (started != batch) {
+                return;
+            }
+            batch = new ArrayList<>();
+            batchChars = 0;
+        }
+        send(started);
+    }
+
+    private void send(List<Pending> articles) {
+        List<JsonSend> items = new ArrayList<>(articles.size());
+        for (Pending pending : articles) {
+            items.add(new JsonSend(pending.sentences, pending.hash));
+        }
+        RequestBody r_body = RequestBody.create(HttpSentimentEngine.JSON, gson.toJson(new JsonBatchSend(items)));
+        Request request = new Request.Builder()
+                .url(batchUrl)
+                .post(r_body)
+                .build();
+        Log.i("ENGINE", "Sending " + articles.size() + " articles in one sentiment request");
+        // Not tied to any screen: the batch carries articles from every refresh in flight
+        IoScheduler.get().supplyDetached(() -> {
+            try {
+                JsonBatchReturn results = IoScheduler.get().execute(request, response -> {
+                    if (response.code() == 404 || response.code() == 405) {
+                        return NO_BATCH_ENDPOINT;
+                    }
+                    if (!response.isSuccessful() || response.body() == null) {
+                        throw new IOException("Sentiment service returned " + response.code());
+                    }
+                    return gson.fromJson(response.body().string(), JsonBatchReturn.class);
+                });
+                if (results == NO_BATCH_ENDPOINT) {
+                    Log.i("ENGINE", "No batch endpoint, sending articles one by one");
+                    batchUnsupported = true;
+                    sendSingly(articles);
+                } else {
+                    complete(articles, results);
+                }
+            } catch (IOException | RuntimeException e) {
+                failAll(articles, e);
+            }
+            return null;
+        });
+    }
+
+    // Results come back in any order, matched to their articles by hash
+    private static void complete(List<Pending> articles, JsonBatchReturn results) {
+        Map<String, JsonReturn> byHash = new HashMap<>();
+        if (results != null && results.getResults() != null) {
+            for (JsonReturn result : results.getResults()) {
+                if (result != null && result.getHash() != null) {
+                    byHash.put(result.getHash(), result);
+                }
+            }
+        }
+        for (Pending pending : articles) {
+            JsonReturn result = byHash.get(pending.hash);
+            if (result != null) {
+                pending.result.complete(result);
+            } else {
+                pending.result.completeExceptionally(
+                        new IOException("No sentiment result for " + pending.hash));
+            }
+        }
+    }
+
+    private void sendSingly(List<Pending> articles) {
+        for (Pending pending : articles) {
+            IoScheduler.get().supplyDetached(() -> {
+                try {
+                    pending.result.complete(single.classify(pending.hash, pending.sentences));
+                } catch (IOException | RuntimeException e) {
+                    pending.result.completeExceptionally(e);
+                }
+                return null;
+            });
+        }
+    }
+
+    private static void failAll(List<Pending> articles, Exception e) {
+        IOException failure = e instanceof IOException ? (IOException) e : new IOException(e);
+        for (Pending pending : articles) {
+            pending.result.completeExceptionally(failure);
+        }
+    }
+
+    private static final class Pending {
+        private final String hash;
+        private final String[] sentences;
+        private final int chars;
+        private final CompletableFuture<JsonReturn> result = new CompletableFuture<>();
+
+        Pending(String hash, String[] sentences) {
+            this.hash = hash;
+            this.sentences = sentences;
+            int length = hash.length();
+            for (String sentence : sentences) {
+                length += sentence.length();
+            }
+            this.chars = length;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package gemenielabs.sentiment.Engine;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import gemenielabs.sentiment.DataProcessing.Fingerprint;
+import gemenielabs.sentiment.Helper.JsonReturn;
+import gemenielabs.sentiment.Network.IoScheduler;
+
+/**
+ * Sends only the sentences missing from a {@link SentenceCache} to another engine and merges
+ * the cached results into its answer, so the result still reads like one response for the
+ * whole article.
+ *
+ * Engines with {@link SentimentEngine#classifyEach(String[])} fill the cache sentence by
+ * sentence. The sentiment service only returns per class totals, so its sentences are cached
+ * when the totals pin them down: a single sentence, or all of them in one class, which then
+ * share the class's mean score.
+ */
+public final class CachedSentimentEngine implements SentimentEngine {
+    private final SentimentEngine engine;
+    private final SentenceCache cache;
+
+    public CachedSentimentEngine(SentimentEngine engine, SentenceCache cache) {
+        this.engine = engine;
+        this.cache = cache;
+    }
+
+    @Override
+    public JsonReturn classify(String hash, String[] sentences) throws IOException {
+        if (sentences.length == 0) {
+            return engine.classify(hash, sentences);
+        }
+        Lookup lookup = new Lookup(hash, sentences);
+        if (lookup.missing.isEmpty()) {
+            return lookup.tally.toJsonReturn(hash);
+        }
+        String[] send = lookup.missing.toArray(new String[0]);
+        SentenceSentiment[] each = engine.classifyEach(send);
+        if (each != null) {
+            return lookup.merge(each);
+        }
+        return lookup.merge(engine.classify(hash, send));
+    }
+
+    @Override
+    public CompletableFuture<JsonReturn> classifyAsync(String hash, String[] sentences) {
+        if (sentences.length == 0) {
+            return engine.classifyAsync(hash, sentences);
+        }
+        Lookup lookup = new Lookup(hash, sentences);
+        if (lookup.missing.isEmpty()) {
+            return CompletableFuture.completedFuture(lookup.tally.toJsonReturn(hash));
+        }
+        String[] send = lookup.missing.toArray(new String[0]);
+        if (engine.classifiesEach()) {
+            // On-device inference runs on the I/O threads, within the caller's scope
+            return IoScheduler.get().supplyAsync(() -> {
+                try {
+                    return lookup.merge(engine.classifyEach(send));
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            });
+        }
+        return engine.classifyAsync(hash, send).thenApply(response -> {
+            try {
+                return lookup.merge(response);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public SentenceSentiment[] classifyEach(String[] sentences) throws IOException {
+        return engine.classifyEach(sentences);
+    }
+
+    @Override
+    public boolean classifiesEach() {
+        return engine.classifiesEach();
+    }
+
+    // Cached results of one article and the sentences still to classify
+    private final class Lookup {
+        private final String hash;
+        private final int sentenceCount;
+        private final SentimentTally tally = new SentimentTally();
+        private final List<String> missing = new ArrayList<>();
+        private final List<Long> missingKeys = new ArrayList<>();
+
+        Lookup(String hash, String[] sentences) {
+            this.hash = hash;
+            this.sentenceCount = sentences.length;
+            for (String sentence : sentences) {
+                long fingerprint = Fingerprint.hash(sentence);
+                SentenceSentiment cached = cache.get(fingerprint);
+                if (cached != null) {
+                    tally.add(cached);
+                } else {
+                    missing.add(sentence);
+                    missingKeys.add(fingerprint);
+                }
+            }
+        }
+
+        JsonReturn merge(SentenceSentiment[] each) {
+            for (int i = 0; i < each.length; i++) {
+                cache.put(missingKeys.get(i), each[i]);
+                tally.add(each[i]);
+            }
+            return tally.toJsonReturn(hash);
+        }
+
+        JsonReturn merge(JsonReturn response) throws IOException {
+            try {
+                cacheUnanimous(response);
+                if (missing.size() == sentenceCount) {
+                    // Nothing to merge, keep the service's answer as it is
+                    return response;
+                }
+                tally.add(response);
+            } catch (RuntimeException e) {
+                throw new IOException("Unreadable sentiment response for " + hash, e);
+            }
+            return tally.toJsonReturn(hash);
+        }
+
+        private void cacheUnanimous(JsonReturn response) {
+            String[][] classes = new String[SentenceSentiment.LABELS][];
+            classes[SentenceSentiment.POSITIVE] = response.getPositive();
+            classes[SentenceSentiment.NEUTRAL] = response.getNeutral();
+            classes[SentenceSentiment.NEGATIVE] = response.getNegative();
+            for (int label = 0; label < classes.length; label++) {
+                if (Integer.parseInt(classes[label][0]) == missingKeys.size()) {
+                    SentenceSentiment sentence = new SentenceSentiment(label, Float.parseFloat(classes[label][1]));
+                    for (long key : missingKeys) {
+                        cache.put(key, sentence);
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package gemenielabs.sentiment.Engine;
+
+import com.google.gson.Gson;
+
+import java.io.IOException;
+
+import gemenielabs.sentiment.Helper.JsonReturn;
+import gemenielabs.sentiment.Helper.JsonSend;
+import gemenielabs.sentiment.Network.IoScheduler;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+
+/** Sends the sentences of an article to the Cloud Run sentiment service. */
+public final class HttpSentimentEngine implements SentimentEngine {
+
+    public static final MediaType JSON = MediaType.parse("application/json");
+    public static final String URL = "https://stocks-backend-sentiment-f3jmjyxrpq-uc.a.run.app";
+
+    private final Gson gson = new Gson();
+    private final String url;
+
+    public HttpSentimentEngine() {
+        this(URL);
+    }
+
+    public HttpSentimentEngine(String url) {
+        this.url = url;
+    }
+
+    @Override
+    public JsonReturn classify(String hash, String[] sentences) throws IOException {
+        String jString = gson.toJson(new JsonSend(sentences, hash));
+        RequestBody r_body = RequestBody.create(JSON, jString);
+        Request request = new Request.Builder()
+                .url(url)
+                .post(r_body)
+                .build();
+        return IoScheduler.get().execute(request, response -> {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("Sentiment service returned " + response.code());
+            }
+            return gson.fromJson(response.body().string(), JsonReturn.class);
+        });
+    }
+}
@@ -0,0 +1,198 @@
+package gemenielabs.sentiment.Engine;
+
+import static gemenielabs.sentiment.MainActivity.stockDao;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.util.Log;
+
+import org.tensorflow.lite.Interpreter;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import gemenielabs.sentiment.BuildConfig;
+import gemenielabs.sentiment.Helper.JsonReturn;
+import gemenielabs.sentiment.Tokenizer.BertTokenizer;
+import gemenielabs.sentiment.Tokenizer.EncodedBatch;
+import gemenielabs.sentiment.Tokenizer.TokenCache;
+
+/**
+ * On-device alternative to the sentiment service: a FinBERT style TFLite classifier in
+ * assets/model.tflite with its WordPiece vocabulary in assets/vocab.txt. Sentences are encoded
+ * by {@link BertTokenizer} into one {@link EncodedBatch} per article, through a {@link TokenCache}
+ * so repeated sentences skip tokenizing, and the batch buffers go to the interpreter as they are.
+ *
+ * The model takes int32 input ids, attention mask and segment ids of shape [batch, 128] and
+ * returns [batch, 3] logits in FinBERT's label order: positive, negative, neutral.
+ */
+public final class LocalSentimentEngine implements SentimentEngine {
+
+    public static final String MODEL_FILE = "model.tflite";
+    public static final String VOCAB_FILE = "vocab.txt";
+
+    private static final int MAX_LEN = 128;
+    private static final int LABELS = 3;
+    // Model output order
+    private static final int[] SENTENCE_LABELS =
+            {SentenceSentiment.POSITIVE, SentenceSentiment.NEGATIVE, SentenceSentiment.NEUTRAL};
+    private static final long TOKEN_CACHE_BYTES = 4L * 1024 * 1024;
+    private static final int TOKEN_STORE_ROWS = 20000;
+
+    private static volatile LocalSentimentEngine instance;
+    private static volatile boolean unavailable;
+
+    private final Interpreter interpreter;
+    private final TokenCache tokenCache;
+    private final int idsInput;
+    private final int maskInput;
+    private final int segmentInput;
+
+    /**
+     * Returns the shared engine, loading the model on first use, or null when the app was built
+     * without the model assets or they could not be loaded.
+     */
+    public static LocalSentimentEngine get(Context context) {
+        // TensorFlow Lite is only on the compile classpath unless the build opts in
+        if (!BuildConfig.LOCAL_SENTIMENT_MODEL) {
+            return null;
+        }
+        if (instance == null && !unavailable) {
+            synchronized (LocalSentimentEngine.class) {
+                if (instance == null && !unavailable) {
+                    try {
+                        instance = new LocalSentimentEngine(context.getApplicationContext());
+                    } catch (IOException | RuntimeException e) {
+                        Log.i("ENGINE", "Local sentiment model unavailable: " + e);
+                        unavailable = true;
+                    }
+                }
+            }
+        }
+        return instance;
+    }
+
+    private LocalSentimentEngine(Context context) throws IOException {
+        BertTokenizer tokenizer = new BertTokenizer(loadVocab(context), true);
+        tokenCache = new TokenCache(tokenizer, MAX_LEN, TOKEN_CACHE_BYTES, stockDao, TOKEN_STORE_ROWS);
+
+        Interpreter.Options options = new Interpreter.Options();
+        options.setNumThreads(Math.max(1, Runtime.getRuntime().availableProcessors()));
+        interpreter = new Interpreter(loadModel(context), options);
+
+        // Exported BERT models do not agree on input order, so find the inputs by name
+        int idsIndex = 0;
+        int maskIndex = 1;
+        int segmentIndex = 2;
+        for (int i = 0; i < interpreter.getInputTensorCount(); i++) {
+            String name = interpreter.getInputTensor(i).name().toLowerCase(Locale.ROOT);
+            if (name.contains("mask")) {
+                maskIndex = i;
+            } else if (name.contains("segment") || name.contains("type")) {
+                segmentIndex = i;
+            } else if (name.contains("ids")) {
+                idsIndex = i;
+            }
+        }
+        idsInput = idsIndex;
+        maskInput = maskIndex;
+        segmentInput = segmentIndex;
+    }
+
+    @Override
+    public JsonReturn classify(String hash, String[] sentences) throws IOException {
+        SentimentTally tally = new SentimentTally();
+        for (SentenceSentiment sentence : classifyEach(sentences)) {
+            tally.add(sentence);
+        }
+        return tally.toJsonReturn(hash);
+    }
+
+    @Override
+    public boolean classifiesEach() {
+        return true;
+    }
+
+    // The interpreter is single threaded, so articles are classified one at a time
+    @Override
+    public synchronized SentenceSentiment[] classifyEach(String[] sentences) throws IOException {
+        int batch = sentences.length;
+        float[][] logits = new float[batch][LABELS];
+        try (EncodedBatch encoded = tokenCache.encodeBatch(Arrays.asList(sentences))) {
+            int[] shape = {batch, MAX_LEN};
+            Object[] input = new Object[interpreter.getInputTensorCount()];
+            input[idsInput] = encoded.inputIds();
+            input[maskInput] = encoded.inputMask();
+            input[segmentInput] = encoded.segmentIds();
+            for (int i = 0; i < input.length; i++) {
+                interpreter.resizeInput(i, shape);
+            }
+            Map<Integer, Object> output = new HashMap<>();
+            output.put(0, logits);
+            interpreter.runForMultipleInputsOutputs(input, output);
+        } catch (RuntimeException e) {
+            throw new IOException("Local sentiment model failed", e);
+        }
+
+        SentenceSentiment[] results = new SentenceSentiment[batch];
+        for (int row = 0; row < batch; row++) {
+            double[] probabilities = softmax(logits[row]);
+            int label = 0;
+            for (int i = 1; i < LABELS; i++) {
+                if (probabilities[i] > probabilities[label]) {
+                    label = i;
+                }
+            }
+            results[row] = new SentenceSentiment(SENTENCE_LABELS[label], (float) probabilities[label]);
+        }
+        return results;
+    }
+
+    private static double[] softmax(float[] logits) {
+        double max = logits[0];
+        for (float logit : logits) {
+            max = Math.max(max, logit);
+        }
+        double sum = 0;
+        double[] probabilities = new double[logits.length];
+        for (int i = 0; i < logits.length; i++) {
+            probabilities[i] = Math.exp(logits[i] - max);
+            sum += probabilities[i];
+        }
+        for (int i = 0; i < logits.length; i++) {
+            probabilities[i] /= sum;
+        }
+        return probabilities;
+    }
+
+    private static Map<String, Integer> loadVocab(Context context) throws IOException {
+        Map<String, Integer> vocab = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                context.getAssets().open(VOCAB_FILE), StandardCharsets.UTF_8))) {
+            String line;
+            int id = 0;
+            while ((line = reader.readLine()) != null) {
+                vocab.put(line.trim(), id++);
+            }
+        }
+        return vocab;
+    }
+
+    private static MappedByteBuffer loadModel(Context context) throws IOException {
+        try (AssetFileDescriptor descriptor = context.getAssets().openFd(MODEL_FILE);
+             FileInputStream stream = new FileInputStream(descriptor.getFileDescriptor());
+             FileChannel channel = stream.getChannel()) {
+            return channel.map(FileChannel.MapMode.READ_ONLY,
+                    descriptor.getStartOffset(), descriptor.getDeclaredLength());
+        }
+    }
+}
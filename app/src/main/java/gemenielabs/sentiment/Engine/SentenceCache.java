@@ -0,0 +1,54 @@
+package gemenielabs.sentiment.Engine;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU of sentence results keyed by the {@link gemenielabs.sentiment.DataProcessing.Fingerprint}
+ * of the sentence. Syndicated articles repeat disclaimers and "About Company X" paragraphs, so
+ * on a large refresh many sentences have been classified already.
+ */
+public final class SentenceCache {
+    private final LinkedHashMap<Long, SentenceSentiment> entries;
+    private long hits;
+    private long misses;
+
+    public SentenceCache(final int maxEntries) {
+        entries = new LinkedHashMap<Long, SentenceSentiment>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, SentenceSentiment> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    synchronized SentenceSentiment get(long fingerprint) {
+        SentenceSentiment sentence = entries.get(fingerprint);
+        if (sentence != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return sentence;
+    }
+
+    synchronized void put(long fingerprint, SentenceSentiment sentence) {
+        entries.put(fingerprint, sentence);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long hitCount() {
+        return hits;
+    }
+
+    public synchronized long missCount() {
+        return misses;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,18 @@
+package gemenielabs.sentiment.Engine;
+
+/** Class and probability the model gave one sentence. */
+public final class SentenceSentiment {
+
+    public static final int POSITIVE = 0;
+    public static final int NEUTRAL = 1;
+    public static final int NEGATIVE = 2;
+    static final int LABELS = 3;
+
+    public final int label;
+    public final float score;
+
+    public SentenceSentiment(int label, float score) {
+        this.label = label;
+        this.score = score;
+    }
+}
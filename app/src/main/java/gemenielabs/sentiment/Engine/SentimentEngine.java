@@ -0,0 +1,51 @@
+package gemenielabs.sentiment.Engine;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import gemenielabs.sentiment.Helper.JsonReturn;
+import gemenielabs.sentiment.Network.IoScheduler;
+
+/**
+ * Classifies the sentences of one article. Results use the sentiment service's response shape:
+ * for each of positive, neutral and negative, the number of sentences in that class and their
+ * score, which SetWordCountData.convertToList reduces to "hash Class score".
+ */
+public interface SentimentEngine {
+
+    /**
+     * @param hash      article key, echoed back in the result.
+     * @param sentences the article as produced by TextNormalizer.sentences.
+     * @throws IOException when the article could not be classified; callers record it as failed.
+     */
+    JsonReturn classify(String hash, String[] sentences) throws IOException;
+
+    /**
+     * {@link #classify(String, String[])} without holding the calling thread, failing with the
+     * IOException when the article could not be classified. Runs classify on the I/O threads
+     * unless the engine has a cheaper way to wait.
+     */
+    default CompletableFuture<JsonReturn> classifyAsync(String hash, String[] sentences) {
+        return IoScheduler.get().supplyAsync(() -> {
+            try {
+                return classify(hash, sentences);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * The result for each sentence, in order, or null when the engine only reports whole
+     * articles, as the sentiment service does.
+     */
+    default SentenceSentiment[] classifyEach(String[] sentences) throws IOException {
+        return null;
+    }
+
+    // True when classifyEach gives per sentence results, so callers need not try it first
+    default boolean classifiesEach() {
+        return false;
+    }
+}
@@ -0,0 +1,47 @@
+package gemenielabs.sentiment.Engine;
+
+import java.util.Locale;
+
+import gemenielabs.sentiment.Helper.JsonReturn;
+
+/**
+ * Adds up sentence results into the service's response shape: per class, the number of
+ * sentences and their mean score. Whole responses can be added too, so results for part of an
+ * article merge with results for the rest.
+ */
+final class SentimentTally {
+    private final int[] counts = new int[SentenceSentiment.LABELS];
+    private final double[] scores = new double[SentenceSentiment.LABELS];
+
+    void add(SentenceSentiment sentence) {
+        counts[sentence.label]++;
+        scores[sentence.label] += sentence.score;
+    }
+
+    void add(JsonReturn response) {
+        add(SentenceSentiment.POSITIVE, response.getPositive());
+        add(SentenceSentiment.NEUTRAL, response.getNeutral());
+        add(SentenceSentiment.NEGATIVE, response.getNegative());
+    }
+
+    JsonReturn toJsonReturn(String hash) {
+        JsonReturn result = new JsonReturn();
+        result.setHash(hash);
+        result.setPositive(classResult(SentenceSentiment.POSITIVE));
+        result.setNeutral(classResult(SentenceSentiment.NEUTRAL));
+        result.setNegative(classResult(SentenceSentiment.NEGATIVE));
+        return result;
+    }
+
+    // The service reports {count, mean score} per class
+    private void add(int label, String[] classResult) {
+        int count = Integer.parseInt(classResult[0]);
+        counts[label] += count;
+        scores[label] += count * Double.parseDouble(classResult[1]);
+    }
+
+    private String[] classResult(int label) {
+        double score = counts[label] == 0 ? 0 : scores[label] / counts[label];
+        return new String[]{String.valueOf(counts[label]), String.format(Locale.US, "%.4f", score)};
+    }
+}
@@ -29,6 +29,7 @@ import gemenielabs.sentiment.DataProcessing.SetStockPriceData;
 import gemenielabs.sentiment.DataProcessing.SetWordCountData;
 import gemenielabs.sentiment.Helper.PriceLiveData;
 import gemenielabs.sentiment.MainActivity;
+import gemenielabs.sentiment.Network.IoScheduler;
 import gemenielabs.sentiment.R;
 import gemenielabs.sentiment.Recycler.StockRecycler;
 import gemenielabs.sentiment.Room.CombinedWordDetails;
@@ -53,6 +54,9 @@ public class PriceFragment extends Fragment {
     // String to store the current date
     private String currentDate;
 
+    // Network work started for the current view, cancelled when the view goes away
+    private IoScheduler.Scope ioScope;
+
     /**
      * Returns a new instance of the PriceFragment.
      */
@@ -84,6 +88,8 @@ public class PriceFragment extends Fragment {
             symbolViews.add(view.findViewById(c));
         }
 
+        ioScope = IoScheduler.get().newScope();
+
         // Get the PriceLiveData object from the ViewModelProvider
         model = new ViewModelProvider(requireActivity()).get(PriceLiveData.class);
 
@@ -100,11 +106,22 @@ public class PriceFragment extends Fragment {
         model.getPrice().observe(getViewLifecycleOwner(), stockRecycler::setPrice);
     }
 
+    /**
+     * Cancels the requests still running for this view.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        Log.i("PriceFragment", "Cancelling refresh " + IoScheduler.get().metrics());
+        ioScope.cancel();
+    }
+
     /**
      * Sets the stock symbol data for the PriceFragment.
      */
     public void setSymbolData(String args){
-        Executors.newSingleThreadExecutor().execute(new Runnable() {
+        IoScheduler.Scope scope = ioScope;
+        Executors.newSingleThreadExecutor().execute(() -> scope.run(new Runnable() {
             @Override
             public void run() {
                 // Create new SetDailySymbolData, SetStockPriceData, and SetNewsData objects
@@ -122,7 +139,7 @@ public class PriceFragment extends Fragment {
                 // Get the word count data for the newsdeets list
                 getWordCountData(args, newsdeets);
 
-                if(getParentFragment() != null) {
+                if(!scope.isCancelled() && getParentFragment() != null) {
                     getParentFragment().requireActivity().runOnUiThread(new Runnable() {
                         @Override
                         public void run() {
@@ -143,24 +160,28 @@ public class PriceFragment extends Fragment {
                     });
                 }
             }
-        });
+        }));
     }
 
     /**
      * Gets the word count data for the newsdeets list.
      */
     public void getWordCountData(String args, List<NewsDetails> list){
-        Executors.newSingleThreadExecutor().execute(new Runnable() {
+        IoScheduler.Scope scope = ioScope;
+        Executors.newSingleThreadExecutor().execute(() -> scope.run(new Runnable() {
             @Override
             public void run() {
                 // Create new SetWordCountData and SetCombineWordCountData objects
                 SetWordCountData wordCountData = new SetWordCountData();
-                if(getParentFragment() != null) {
+                if(!scope.isCancelled() && getParentFragment() != null) {
 
                     final List<WordCountDetails> words = wordCountData.setWordCountData(args, list,
                             getParentFragment().getActivity());
                     SetCombineWordCountData setCombineWordCountData = new SetCombineWordCountData();
                     final List<CombinedWordDetails> combinedWordDetails = setCombineWordCountData.combineDates(words);
+                    if (scope.isCancelled()) {
+                        return;
+                    }
                     getParentFragment().requireActivity().runOnUiThread(new Runnable() {
                         @Override
                         public void run() {
@@ -176,6 +197,6 @@ public class PriceFragment extends Fragment {
                     });
                 }
             }
-        });
+        }));
     }
 }
\ No newline at end of file
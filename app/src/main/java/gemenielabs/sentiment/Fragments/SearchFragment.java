@@ -23,14 +23,12 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import java.util.ArrayList;
 import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
 import gemenielabs.sentiment.DataProcessing.SetSearchSymbolData;
 import gemenielabs.sentiment.Helper.PriceLiveData;
 import gemenielabs.sentiment.MainActivity;
 import gemenielabs.sentiment.R;
 import gemenielabs.sentiment.Recycler.SearchRecycler;
-import okhttp3.OkHttpClient;
 
 public class SearchFragment extends Fragment implements SearchRecycler.SearchClickListener {
 
@@ -41,8 +39,6 @@ public class SearchFragment extends Fragment implements SearchRecycler.SearchCli
     private CalendarView calendarStart;
     public static String holderTicker;
     private Context context;
-    public static OkHttpClient client = new OkHttpClient().newBuilder()
-            .readTimeout(45, TimeUnit.SECONDS).build();
 
     // Create a new instance of the SearchFragment
     public static SearchFragment newInstance() {
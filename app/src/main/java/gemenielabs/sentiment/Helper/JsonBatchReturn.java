@@ -0,0 +1,7 @@
+package gemenielabs.sentiment.Helper;
+
+public class JsonBatchReturn {
+    public JsonReturn[] results;
+
+    public JsonReturn[] getResults() {return results;}
+}
@@ -0,0 +1,18 @@
+package gemenielabs.sentiment.Helper;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+public class JsonBatchSend {
+
+    @SerializedName(value = "items")
+    private List<JsonSend> items;
+
+    public List<JsonSend> getItems() {return items;}
+    public void setItems(List<JsonSend> items) {this.items = items;}
+
+    public JsonBatchSend(List<JsonSend> items) {
+        this.items = items;
+    }
+}
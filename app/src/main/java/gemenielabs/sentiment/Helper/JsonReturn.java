@@ -49,4 +49,10 @@ public class JsonReturn{
 
     public String[] getNegative() {return negative;}
 
+    public void setPositive(String[] positive) {this.positive = positive;}
+
+    public void setNeutral(String[] neutral) {this.neutral = neutral;}
+
+    public void setNegative(String[] negative) {this.negative = negative;}
+
 }
@@ -0,0 +1,36 @@
+package gemenielabs.sentiment.Lexicon;
+
+/**
+ * Lexicon result for one article: positive/negative hits, its packed {@link TermVector} and the
+ * version of the lexicon that produced them.
+ */
+public final class ArticleScore {
+
+    private final int positive;
+    private final int negative;
+    private final byte[] termFrequencies;
+    private final int lexiconVersion;
+
+    public ArticleScore(int positive, int negative, byte[] termFrequencies, int lexiconVersion) {
+        this.positive = positive;
+        this.negative = negative;
+        this.termFrequencies = termFrequencies;
+        this.lexiconVersion = lexiconVersion;
+    }
+
+    public int getPositive() {
+        return positive;
+    }
+
+    public int getNegative() {
+        return negative;
+    }
+
+    public byte[] getTermFrequencies() {
+        return termFrequencies;
+    }
+
+    public int getLexiconVersion() {
+        return lexiconVersion;
+    }
+}
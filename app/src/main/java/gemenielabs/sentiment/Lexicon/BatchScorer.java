@@ -0,0 +1,90 @@
+package gemenielabs.sentiment.Lexicon;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import gemenielabs.sentiment.Room.NewsDetails;
+
+/**
+ * Scores a batch of articles against the {@link PhraseMatcher} on a dedicated fork-join pool.
+ * The batch is split into ranges, each worker scans with its own thread-local
+ * {@link WordScanner} and writes into its own slots of the result array, so results come
+ * back in input order without any locking.
+ */
+public final class BatchScorer {
+
+    // Ranges at or below this size are scanned on the current worker
+    private static final int SPLIT_THRESHOLD = 8;
+
+    // Kept apart from the common pool, which is busy with blocking network calls
+    private static final ForkJoinPool POOL =
+            new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+
+    private BatchScorer() {
+    }
+
+    // Scores the description of every article, results line up with the input list
+    public static List<ArticleScore> score(PhraseMatcher matcher, List<NewsDetails> articles) {
+        CharSequence[] bodies = new CharSequence[articles.size()];
+        for (int i = 0; i < bodies.length; i++) {
+            String description = articles.get(i).getArticleDescription();
+            bodies[i] = description == null ? "" : description;
+        }
+        return scoreBodies(matcher, bodies);
+    }
+
+    public static List<ArticleScore> scoreBodies(PhraseMatcher matcher, CharSequence[] bodies) {
+        ArticleScore[] scores = new ArticleScore[bodies.length];
+        ScoreTask task = new ScoreTask(matcher, bodies, scores, 0, bodies.length);
+        if (bodies.length <= SPLIT_THRESHOLD) {
+            task.compute();
+        } else {
+            POOL.invoke(task);
+        }
+        return Arrays.asList(scores);
+    }
+
+    // Scores one body on the scoring pool, for pipelines that handle articles one at a time
+    public static CompletableFuture<ArticleScore> scoreAsync(PhraseMatcher matcher, CharSequence body) {
+        return CompletableFuture.supplyAsync(() -> {
+            int[] counts = new int[2];
+            byte[] terms = WordScanner.get().countTerms(matcher, body, counts);
+            return new ArticleScore(counts[0], counts[1], terms, matcher.version());
+        }, POOL);
+    }
+
+    private static final class ScoreTask extends RecursiveAction {
+        private final PhraseMatcher matcher;
+        private final CharSequence[] bodies;
+        private final ArticleScore[] scores;
+        private final int from;
+        private final int to;
+
+        ScoreTask(PhraseMatcher matcher, CharSequence[] bodies, ArticleScore[] scores, int from, int to) {
+            this.matcher = matcher;
+            this.bodies = bodies;
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                WordScanner scanner = WordScanner.get();
+                int[] counts = new int[2];
+                for (int i = from; i < to; i++) {
+                    byte[] terms = scanner.countTerms(matcher, bodies[i], counts);
+                    scores[i] = new ArticleScore(counts[0], counts[1], terms, matcher.version());
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ScoreTask(matcher, bodies, scores, from, middle),
+                    new ScoreTask(matcher, bodies, scores, middle, to));
+        }
+    }
+}
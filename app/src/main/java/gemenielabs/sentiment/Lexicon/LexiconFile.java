@@ -0,0 +1,168 @@
+package gemenielabs.sentiment.Lexicon;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versioned binary lexicon kept in the app's files directory, so the word lists can be
+ * updated without shipping a new build. The file is memory-mapped and read once into a
+ * {@link PhraseMatcher}; when it is missing or unreadable the arrays in res/values/array.xml
+ * are used instead.
+ *
+ * Layout, big-endian: magic "SLEX", format version, lexicon version, then the word count
+ * followed by (polarity byte, length byte, ASCII word) records, then the phrase count
+ * followed by (polarity byte, length short, ASCII phrase) records.
+ */
+public final class LexiconFile {
+
+    public static final String FILE_NAME = "lexicon.bin";
+
+    // Version of the lexicon bundled in array.xml, files must use a higher one
+    public static final int BUNDLED_VERSION = 1;
+
+    private static final int MAGIC = 0x534C4558;
+    private static final int FORMAT_VERSION = 1;
+
+    private LexiconFile() {
+    }
+
+    // Loads the installed lexicon file, falling back to the bundled arrays
+    static PhraseMatcher load(Context context) {
+        File file = new File(context.getFilesDir(), FILE_NAME);
+        if (file.isFile()) {
+            try {
+                return read(file);
+            } catch (IOException | RuntimeException e) {
+                Log.i("LEXICON", "Using bundled lexicon, " + file + " is unreadable: " + e);
+            }
+        }
+        return PhraseMatcher.fromResources(context.getResources());
+    }
+
+    /**
+     * Checks {@code update}, atomically moves it over the installed lexicon and swaps it in for
+     * every following scan. Nothing changes if the update cannot be read or is not newer than the
+     * lexicon in use, since stored counts are only rescored when the version changes.
+     *
+     * @return the version of the lexicon now in use.
+     */
+    public static int install(Context context, File update) throws IOException {
+        PhraseMatcher matcher = read(update);
+        int current = PhraseMatcher.get(context).version();
+        if (matcher.version() <= current) {
+            throw new IOException("Lexicon version " + matcher.version() + " is not newer than " + current);
+        }
+        File target = new File(context.getFilesDir(), FILE_NAME);
+        Files.move(update.toPath(), target.toPath(),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        PhraseMatcher.swap(matcher);
+        Log.i("LEXICON", "Installed lexicon version " + matcher.version());
+        return matcher.version();
+    }
+
+    // Drops an installed file and goes back to the bundled lexicon
+    public static void uninstall(Context context) {
+        File target = new File(context.getFilesDir(), FILE_NAME);
+        if (target.delete()) {
+            PhraseMatcher.swap(PhraseMatcher.fromResources(context.getResources()));
+        }
+    }
+
+    public static PhraseMatcher read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (map.getInt() != MAGIC) {
+                throw new IOException("Not a lexicon file");
+            }
+            int format = map.getInt();
+            if (format != FORMAT_VERSION) {
+                throw new IOException("Unsupported lexicon format " + format);
+            }
+            int version = map.getInt();
+
+            Map<String, Integer> entries = new LinkedHashMap<>();
+            Stemmer stemmer = new Stemmer();
+            int words = map.getInt();
+            for (int i = 0; i < words; i++) {
+                int flag = map.get();
+                SentimentLexicon.add(entries, stemmer, readAscii(map, map.get() & 0xFF), flag);
+            }
+
+            List<String> positive = new ArrayList<>();
+            List<String> negative = new ArrayList<>();
+            int phrases = map.getInt();
+            for (int i = 0; i < phrases; i++) {
+                int flag = map.get();
+                String phrase = readAscii(map, map.getShort() & 0xFFFF);
+                if ((flag & SentimentLexicon.POSITIVE) != 0) {
+                    positive.add(phrase);
+                }
+                if ((flag & SentimentLexicon.NEGATIVE) != 0) {
+                    negative.add(phrase);
+                }
+            }
+            return new PhraseMatcher(new SentimentLexicon(entries), positive.toArray(new String[0]),
+                    negative.toArray(new String[0]), version);
+        }
+    }
+
+    /**
+     * Writes a lexicon file next to {@code target} and renames it into place, so readers never
+     * see a half written file.
+     *
+     * @param words   word to polarity flags.
+     * @param phrases multi-word phrase to polarity flags.
+     */
+    public static void write(File target, int version, Map<String, Integer> words,
+                             Map<String, Integer> phrases) throws IOException {
+        File temp = new File(target.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(temp))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(version);
+            out.writeInt(words.size());
+            for (Map.Entry<String, Integer> word : words.entrySet()) {
+                byte[] bytes = word.getKey().getBytes(StandardCharsets.US_ASCII);
+                if (bytes.length > 0xFF) {
+                    throw new IllegalArgumentException("Word too long: " + word.getKey());
+                }
+                out.writeByte(word.getValue());
+                out.writeByte(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(phrases.size());
+            for (Map.Entry<String, Integer> phrase : phrases.entrySet()) {
+                byte[] bytes = phrase.getKey().getBytes(StandardCharsets.US_ASCII);
+                if (bytes.length > 0xFFFF) {
+                    throw new IllegalArgumentException("Phrase too long: " + phrase.getKey());
+                }
+                out.writeByte(phrase.getValue());
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+        }
+        Files.move(temp.toPath(), target.toPath(),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String readAscii(MappedByteBuffer map, int length) {
+        byte[] bytes = new byte[length];
+        map.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
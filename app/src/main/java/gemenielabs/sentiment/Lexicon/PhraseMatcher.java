@@ -0,0 +1,241 @@
+package gemenielabs.sentiment.Lexicon;
+
+import android.content.Context;
+import android.content.res.Resources;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import gemenielabs.sentiment.R;
+
+/**
+ * Aho-Corasick automaton over the sentiment lexicon words plus the multi-word phrases in
+ * R.array.positive_phrases / negative_phrases. Words are fed in one at a time and every
+ * pattern is anchored on word boundaries, so single words match exactly as the plain
+ * lexicon lookup does while phrases such as "beat expectations" match across words.
+ *
+ * The automaton is a full DFA kept in one int[] transition table of {@link #ALPHABET}
+ * columns (word boundary plus a-z). Pattern ids line up with the {@link SentimentLexicon}
+ * entry ids, phrases follow after the last word.
+ */
+public final class PhraseMatcher {
+
+    static final int ALPHABET = 27;
+    private static final int BOUNDARY = 0;
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    private static volatile PhraseMatcher instance;
+
+    private final SentimentLexicon lexicon;
+    private final int version;
+    private final int[] transitions;
+    private final int[] patternAt;
+    private final int[] outputLink;
+    private final byte[] polarity;
+    private final String[] patterns;
+    private final int start;
+
+    // Returns the shared matcher, loading the lexicon file (or the bundled arrays) on the first call
+    public static PhraseMatcher get(Context context) {
+        PhraseMatcher local = instance;
+        if (local == null) {
+            synchronized (PhraseMatcher.class) {
+                local = instance;
+                if (local == null) {
+                    local = LexiconFile.load(context);
+                    instance = local;
+                }
+            }
+        }
+        return local;
+    }
+
+    // Replaces the shared matcher; scans already running finish on the one they started with
+    static void swap(PhraseMatcher matcher) {
+        synchronized (PhraseMatcher.class) {
+            instance = matcher;
+        }
+    }
+
+    static PhraseMatcher fromResources(Resources resources) {
+        return new PhraseMatcher(SentimentLexicon.fromResources(resources),
+                resources.getStringArray(R.array.positive_phrases),
+                resources.getStringArray(R.array.negative_phrases),
+                LexiconFile.BUNDLED_VERSION);
+    }
+
+    public PhraseMatcher(SentimentLexicon lexicon, String[] positivePhrases, String[] negativePhrases,
+                         int version) {
+        this.lexicon = lexicon;
+        this.version = version;
+        List<String> text = new ArrayList<>();
+        List<Integer> flags = new ArrayList<>();
+        for (int entry = 0; entry < lexicon.size(); entry++) {
+            text.add(lexicon.word(entry));
+            flags.add(lexicon.polarity(entry));
+        }
+        addPhrases(text, flags, positivePhrases, SentimentLexicon.POSITIVE);
+        addPhrases(text, flags, negativePhrases, SentimentLexicon.NEGATIVE);
+
+        patterns = text.toArray(new String[0]);
+        polarity = new byte[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            polarity[i] = (byte) (int) flags.get(i);
+        }
+
+        // Trie over " word word " symbol strings, grown as needed
+        int[] table = new int[ALPHABET * 1024];
+        int[] ends = new int[1024];
+        Arrays.fill(table, NONE);
+        Arrays.fill(ends, NONE);
+        int states = 1;
+        for (int id = 0; id < patterns.length; id++) {
+            String pattern = patterns[id];
+            int state = ROOT;
+            for (int i = -1; i <= pattern.length(); i++) {
+                int symbol = (i < 0 || i == pattern.length()) ? BOUNDARY : symbol(pattern.charAt(i));
+                int next = table[state * ALPHABET + symbol];
+                if (next == NONE) {
+                    if (states == ends.length) {
+                        int grown = ends.length * 2;
+                        table = Arrays.copyOf(table, grown * ALPHABET);
+                        Arrays.fill(table, ends.length * ALPHABET, table.length, NONE);
+                        ends = Arrays.copyOf(ends, grown);
+                        Arrays.fill(ends, states, grown, NONE);
+                    }
+                    next = states++;
+                    table[state * ALPHABET + symbol] = next;
+                }
+                state = next;
+            }
+            if (ends[state] == NONE) {
+                ends[state] = id;
+            }
+        }
+
+        transitions = Arrays.copyOf(table, states * ALPHABET);
+        patternAt = Arrays.copyOf(ends, states);
+        outputLink = new int[states];
+        int[] failure = new int[states];
+        Arrays.fill(outputLink, NONE);
+
+        // Breadth-first failure links, filling in missing edges to turn the trie into a DFA
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            int child = transitions[ROOT * ALPHABET + symbol];
+            if (child == NONE) {
+                transitions[ROOT * ALPHABET + symbol] = ROOT;
+            } else {
+                failure[child] = ROOT;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int fail = failure[state];
+            outputLink[state] = patternAt[fail] != NONE ? fail : outputLink[fail];
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int child = transitions[state * ALPHABET + symbol];
+                int fallback = transitions[fail * ALPHABET + symbol];
+                if (child == NONE) {
+                    transitions[state * ALPHABET + symbol] = fallback;
+                } else {
+                    failure[child] = fallback;
+                    queue.add(child);
+                }
+            }
+        }
+        start = transitions[ROOT * ALPHABET + BOUNDARY];
+    }
+
+    // Cleans and stems each phrase the same way article words are and joins words with one space.
+    // Single words belong in the word arrays, so only real phrases are kept here.
+    private static void addPhrases(List<String> text, List<Integer> flags, String[] phrases, int flag) {
+        Stemmer stemmer = new Stemmer();
+        for (String phrase : phrases) {
+            StringBuilder builder = new StringBuilder();
+            for (String word : phrase.split(" ")) {
+                StringBuilder cleaned = new StringBuilder();
+                for (int i = 0; i < word.length(); i++) {
+                    char lower = WordScanner.toLowerLetter(word.charAt(i));
+                    if (lower != 0) {
+                        cleaned.append(lower);
+                    }
+                }
+                if (cleaned.length() > 0) {
+                    if (builder.length() > 0) {
+                        builder.append(' ');
+                    }
+                    builder.append(stemmer.stem(cleaned.toString()));
+                }
+            }
+            if (builder.indexOf(" ") > 0) {
+                text.add(builder.toString());
+                flags.add(flag);
+            }
+        }
+    }
+
+    public SentimentLexicon lexicon() {
+        return lexicon;
+    }
+
+    // Version of the word lists this matcher was built from, stored with every score
+    public int version() {
+        return version;
+    }
+
+    public int patternCount() {
+        return patterns.length;
+    }
+
+    public String pattern(int id) {
+        return patterns[id];
+    }
+
+    public int polarity(int id) {
+        return polarity[id];
+    }
+
+    // State to begin each article in, as if a word boundary had just been read
+    public int start() {
+        return start;
+    }
+
+    /**
+     * Advances the automaton over one cleaned, lower-case, stemmed word and the boundary after it.
+     *
+     * @param counts      positive hits are added at index 0, negative hits at index 1.
+     * @param frequencies per-pattern hit counts indexed by pattern id, or null to skip them.
+     * @param negated     true inside a negation scope, which swaps the polarity of the hits.
+     * @return the state to feed the next word into.
+     */
+    public int feedWord(int state, char[] word, int length, int[] counts, int[] frequencies, boolean negated) {
+        int positiveIndex = negated ? 1 : 0;
+        for (int i = 0; i < length; i++) {
+            state = transitions[state * ALPHABET + (word[i] - 'a' + 1)];
+        }
+        state = transitions[state * ALPHABET + BOUNDARY];
+        for (int hit = patternAt[state] != NONE ? state : outputLink[state]; hit != NONE; hit = outputLink[hit]) {
+            int id = patternAt[hit];
+            int flags = polarity[id];
+            if ((flags & SentimentLexicon.POSITIVE) != 0) {
+                counts[positiveIndex]++;
+            }
+            if ((flags & SentimentLexicon.NEGATIVE) != 0) {
+                counts[1 - positiveIndex]++;
+            }
+            if (frequencies != null) {
+                frequencies[id]++;
+            }
+        }
+        return state;
+    }
+
+    private static int symbol(char ch) {
+        return ch == ' ' ? BOUNDARY : ch - 'a' + 1;
+    }
+}
@@ -0,0 +1,256 @@
+package gemenielabs.sentiment.Lexicon;
+
+import android.content.Context;
+import android.content.res.Resources;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import gemenielabs.sentiment.R;
+
+/**
+ * Immutable open-addressing table of the positive/negative words in res/values/array.xml,
+ * keyed by their {@link Stemmer} stems. Built once per load of the word lists and shared by
+ * every caller, so scoring an article never touches the resource system again. Words are
+ * stored back to back in a single char pool and probed with linear probing, which keeps a
+ * lookup to one hash and (usually) one comparison.
+ */
+public final class SentimentLexicon {
+
+    public static final int NONE = 0;
+    public static final int POSITIVE = 1;
+    public static final int NEGATIVE = 2;
+
+    private static final int EMPTY = -1;
+    private static final int FNV_OFFSET = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+
+    private final char[] pool;
+    private final int[] offsets;
+    private final int[] hashes;
+    private final byte[] polarity;
+    private final int[] slots;
+    private final int mask;
+
+    // Returns the lexicon behind the shared PhraseMatcher, so both always agree after a reload
+    public static SentimentLexicon get(Context context) {
+        return PhraseMatcher.get(context).lexicon();
+    }
+
+    static SentimentLexicon fromResources(Resources resources) {
+        Map<String, Integer> entries = new LinkedHashMap<>();
+        for (int id : POSITIVE_WORD_IDS) {
+            addAll(entries, resources.getStringArray(id), POSITIVE);
+        }
+        for (int id : NEGATIVE_WORD_IDS) {
+            addAll(entries, resources.getStringArray(id), NEGATIVE);
+        }
+        return new SentimentLexicon(entries);
+    }
+
+    // Only plain a-z words can ever equal a cleaned article token, so anything else is dropped.
+    // Entries are stored stemmed, so inflected forms of one word collapse into a single entry.
+    static void addAll(Map<String, Integer> entries, String[] words, int flag) {
+        Stemmer stemmer = new Stemmer();
+        for (String word : words) {
+            add(entries, stemmer, word, flag);
+        }
+    }
+
+    static void add(Map<String, Integer> entries, Stemmer stemmer, String word, int flag) {
+        String normalized = word.trim().toLowerCase(Locale.ROOT);
+        if (normalized.length() < 2 || !isLetters(normalized)) {
+            return;
+        }
+        normalized = stemmer.stem(normalized);
+        Integer current = entries.get(normalized);
+        entries.put(normalized, current == null ? flag : current | flag);
+    }
+
+    public SentimentLexicon(Map<String, Integer> entries) {
+        int size = entries.size();
+        int totalChars = 0;
+        for (String word : entries.keySet()) {
+            totalChars += word.length();
+        }
+        pool = new char[totalChars];
+        offsets = new int[size + 1];
+        hashes = new int[size];
+        polarity = new byte[size];
+
+        int capacity = Integer.highestOneBit(Math.max(2, size * 2) - 1) << 1;
+        slots = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = EMPTY;
+        }
+
+        int entry = 0;
+        int position = 0;
+        for (Map.Entry<String, Integer> word : entries.entrySet()) {
+            String key = word.getKey();
+            key.getChars(0, key.length(), pool, position);
+            offsets[entry] = position;
+            position += key.length();
+            hashes[entry] = hash(pool, offsets[entry], key.length());
+            polarity[entry] = (byte) (int) word.getValue();
+
+            int slot = hashes[entry] & mask;
+            while (slots[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = entry;
+            entry++;
+        }
+        offsets[size] = position;
+    }
+
+    public int size() {
+        return polarity.length;
+    }
+
+    public String word(int entry) {
+        return new String(pool, offsets[entry], offsets[entry + 1] - offsets[entry]);
+    }
+
+    public int polarity(int entry) {
+        return polarity[entry];
+    }
+
+    /**
+     * Looks up an already lower-cased and {@link Stemmer stemmed} word held in
+     * {@code buffer[offset, offset + length)}.
+     *
+     * @return a combination of {@link #POSITIVE} and {@link #NEGATIVE}, or {@link #NONE}.
+     */
+    public int lookup(char[] buffer, int offset, int length) {
+        int hash = hash(buffer, offset, length);
+        int slot = hash & mask;
+        int entry;
+        while ((entry = slots[slot]) != EMPTY) {
+            if (hashes[entry] == hash && matches(entry, buffer, offset, length)) {
+                return polarity[entry];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NONE;
+    }
+
+    public int lookup(CharSequence word) {
+        int length = word.length();
+        int hash = FNV_OFFSET;
+        for (int i = 0; i < length; i++) {
+            hash = (hash ^ word.charAt(i)) * FNV_PRIME;
+        }
+        hash = mix(hash);
+        int slot = hash & mask;
+        int entry;
+        while ((entry = slots[slot]) != EMPTY) {
+            if (hashes[entry] == hash && offsets[entry + 1] - offsets[entry] == length) {
+                int start = offsets[entry];
+                int i = 0;
+                while (i < length && pool[start + i] == word.charAt(i)) {
+                    i++;
+                }
+                if (i == length) {
+                    return polarity[entry];
+                }
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NONE;
+    }
+
+    private boolean matches(int entry, char[] buffer, int offset, int length) {
+        int start = offsets[entry];
+        if (offsets[entry + 1] - start != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (pool[start + i] != buffer[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(char[] buffer, int offset, int length) {
+        int hash = FNV_OFFSET;
+        for (int i = offset; i < offset + length; i++) {
+            hash = (hash ^ buffer[i]) * FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    // FNV-1a leaves the low bits weak for short keys, fold the high bits back in
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean isLetters(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char ch = word.charAt(i);
+            if (ch < 'a' || ch > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static final int[] POSITIVE_WORD_IDS = {
+            R.array.positive_words_a,
+            R.array.positive_words_b,
+            R.array.positive_words_c,
+            R.array.positive_words_d,
+            R.array.positive_words_e,
+            R.array.positive_words_f,
+            R.array.positive_words_g,
+            R.array.positive_words_h,
+            R.array.positive_words_i,
+            R.array.positive_words_j,
+            R.array.positive_words_k,
+            R.array.positive_words_l,
+            R.array.positive_words_m,
+            R.array.positive_words_n,
+            R.array.positive_words_o,
+            R.array.positive_words_p,
+            R.array.positive_words_q,
+            R.array.positive_words_r,
+            R.array.positive_words_s,
+            R.array.positive_words_t,
+            R.array.positive_words_u,
+            R.array.positive_words_v,
+            R.array.positive_words_w,
+            R.array.positive_words_x,
+            R.array.positive_words_y,
+            R.array.positive_words_z};
+
+    static final int[] NEGATIVE_WORD_IDS = {
+            R.array.negative_words_a,
+            R.array.negative_words_b,
+            R.array.negative_words_c,
+            R.array.negative_words_d,
+            R.array.negative_words_e,
+            R.array.negative_words_f,
+            R.array.negative_words_g,
+            R.array.negative_words_h,
+            R.array.negative_words_i,
+            R.array.negative_words_j,
+            R.array.negative_words_k,
+            R.array.negative_words_l,
+            R.array.negative_words_m,
+            R.array.negative_words_n,
+            R.array.negative_words_o,
+            R.array.negative_words_p,
+            R.array.negative_words_q,
+            R.array.negative_words_r,
+            R.array.negative_words_s,
+            R.array.negative_words_t,
+            R.array.negative_words_u,
+            R.array.negative_words_v,
+            R.array.negative_words_w,
+            R.array.negative_words_x,
+            R.array.negative_words_y,
+            R.array.negative_words_z};
+}
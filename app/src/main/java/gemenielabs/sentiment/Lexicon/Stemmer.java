@@ -0,0 +1,226 @@
+package gemenielabs.sentiment.Lexicon;
+
+/**
+ * Porter-style stemmer working in place on a lower-case char buffer. Only the inflectional
+ * steps of Porter's algorithm are applied: plurals, -ed and -ing, a trailing y (1a-1c) and
+ * a trailing e (5a). That folds "downgrades", "downgraded" and "downgrading" onto one entry
+ * while leaving derivational endings alone, since the later Porter steps conflate words
+ * of opposite sentiment such as "general" and "generous".
+ *
+ * Recent results are kept in a small direct-mapped memo, so the common words of a news
+ * feed are stemmed once. Instances are not thread safe; {@link WordScanner} owns one per thread.
+ */
+public final class Stemmer {
+
+    // Words this short are left as they are
+    private static final int MIN_LENGTH = 3;
+
+    private static final int CACHE_SLOTS = 1024;
+    private static final int CACHE_WORD_LENGTH = 24;
+
+    private static final char[][] STEP_1A = {
+            "sses".toCharArray(), "ss".toCharArray(),
+            "ies".toCharArray(), "i".toCharArray(),
+            "ss".toCharArray(), "ss".toCharArray(),
+            "s".toCharArray(), "".toCharArray()};
+
+    private static final char[][] STEP_1B_RESTORE = {
+            "at".toCharArray(), "ate".toCharArray(),
+            "bl".toCharArray(), "ble".toCharArray(),
+            "iz".toCharArray(), "ize".toCharArray()};
+
+    private static final char[] EED = "eed".toCharArray();
+    private static final char[] ED = "ed".toCharArray();
+    private static final char[] ING = "ing".toCharArray();
+
+    private final char[] cacheWords = new char[CACHE_SLOTS * CACHE_WORD_LENGTH];
+    private final char[] cacheStems = new char[CACHE_SLOTS * CACHE_WORD_LENGTH];
+    private final byte[] cacheWordLengths = new byte[CACHE_SLOTS];
+    private final byte[] cacheStemLengths = new byte[CACHE_SLOTS];
+
+    /**
+     * Stems {@code word[0, length)} in place.
+     *
+     * @return the length of the stem, never more than {@code length}.
+     */
+    public int stem(char[] word, int length) {
+        if (length < MIN_LENGTH) {
+            return length;
+        }
+        if (length > CACHE_WORD_LENGTH) {
+            return stemUncached(word, length);
+        }
+
+        int slot = slot(word, length);
+        int base = slot * CACHE_WORD_LENGTH;
+        if (cacheWordLengths[slot] == length && regionMatches(cacheWords, base, word, length)) {
+            int stemLength = cacheStemLengths[slot];
+            System.arraycopy(cacheStems, base, word, 0, stemLength);
+            return stemLength;
+        }
+
+        System.arraycopy(word, 0, cacheWords, base, length);
+        int stemLength = stemUncached(word, length);
+        System.arraycopy(word, 0, cacheStems, base, stemLength);
+        cacheWordLengths[slot] = (byte) length;
+        cacheStemLengths[slot] = (byte) stemLength;
+        return stemLength;
+    }
+
+    // Stems a lexicon entry; only used while building tables
+    public String stem(String word) {
+        char[] chars = word.toCharArray();
+        return new String(chars, 0, stem(chars, chars.length));
+    }
+
+    private static int stemUncached(char[] b, int k) {
+        // Step 1a: plurals
+        for (int i = 0; i < STEP_1A.length; i += 2) {
+            if (endsWith(b, k, STEP_1A[i])) {
+                k = replaceSuffix(b, k, STEP_1A[i].length, STEP_1A[i + 1]);
+                break;
+            }
+        }
+
+        // Step 1b: -eed, -ed, -ing
+        if (endsWith(b, k, EED)) {
+            if (measure(b, k - EED.length) > 0) {
+                k--;
+            }
+        } else {
+            int stemEnd = -1;
+            if (endsWith(b, k, ED) && hasVowel(b, k - ED.length)) {
+                stemEnd = k - ED.length;
+            } else if (endsWith(b, k, ING) && hasVowel(b, k - ING.length)) {
+                stemEnd = k - ING.length;
+            }
+            if (stemEnd >= 0) {
+                k = stemEnd;
+                boolean restored = false;
+                for (int i = 0; i < STEP_1B_RESTORE.length; i += 2) {
+                    if (endsWith(b, k, STEP_1B_RESTORE[i])) {
+                        k = replaceSuffix(b, k, STEP_1B_RESTORE[i].length, STEP_1B_RESTORE[i + 1]);
+                        restored = true;
+                        break;
+                    }
+                }
+                if (!restored) {
+                    if (doubleConsonant(b, k) && b[k - 1] != 'l' && b[k - 1] != 's' && b[k - 1] != 'z') {
+                        k--;
+                    } else if (measure(b, k) == 1 && consonantVowelConsonant(b, k)) {
+                        b[k++] = 'e';
+                    }
+                }
+            }
+        }
+
+        // Step 1c: y -> i when the stem has a vowel
+        if (k > 1 && b[k - 1] == 'y' && hasVowel(b, k - 1)) {
+            b[k - 1] = 'i';
+        }
+
+        // Step 5a: drop a final e, so "downgrade" meets "downgraded"
+        if (k > 1 && b[k - 1] == 'e') {
+            int m = measure(b, k - 1);
+            if (m > 1 || (m == 1 && !consonantVowelConsonant(b, k - 1))) {
+                k--;
+            }
+        }
+        return k;
+    }
+
+    private static boolean isConsonant(char[] b, int i) {
+        switch (b[i]) {
+            case 'a':
+            case 'e':
+            case 'i':
+            case 'o':
+            case 'u':
+                return false;
+            case 'y':
+                return i == 0 || !isConsonant(b, i - 1);
+            default:
+                return true;
+        }
+    }
+
+    // Porter's m: the number of vowel-consonant sequences in b[0, end)
+    private static int measure(char[] b, int end) {
+        int m = 0;
+        int i = 0;
+        while (i < end && isConsonant(b, i)) {
+            i++;
+        }
+        while (i < end) {
+            while (i < end && !isConsonant(b, i)) {
+                i++;
+            }
+            if (i >= end) {
+                break;
+            }
+            m++;
+            while (i < end && isConsonant(b, i)) {
+                i++;
+            }
+        }
+        return m;
+    }
+
+    private static boolean hasVowel(char[] b, int end) {
+        for (int i = 0; i < end; i++) {
+            if (!isConsonant(b, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean doubleConsonant(char[] b, int end) {
+        return end >= 2 && b[end - 1] == b[end - 2] && isConsonant(b, end - 1);
+    }
+
+    // *o: the stem ends consonant-vowel-consonant and the last consonant is not w, x or y
+    private static boolean consonantVowelConsonant(char[] b, int end) {
+        if (end < 3 || !isConsonant(b, end - 1) || isConsonant(b, end - 2) || !isConsonant(b, end - 3)) {
+            return false;
+        }
+        char last = b[end - 1];
+        return last != 'w' && last != 'x' && last != 'y';
+    }
+
+    private static boolean endsWith(char[] b, int end, char[] suffix) {
+        int start = end - suffix.length;
+        if (start < 0) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length; i++) {
+            if (b[start + i] != suffix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int replaceSuffix(char[] b, int end, int suffixLength, char[] replacement) {
+        int start = end - suffixLength;
+        System.arraycopy(replacement, 0, b, start, replacement.length);
+        return start + replacement.length;
+    }
+
+    private static int slot(char[] word, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + word[i];
+        }
+        return (hash ^ (hash >>> 10)) & (CACHE_SLOTS - 1);
+    }
+
+    private static boolean regionMatches(char[] cache, int base, char[] word, int length) {
+        for (int i = 0; i < length; i++) {
+            if (cache[base + i] != word[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,119 @@
+package gemenielabs.sentiment.Lexicon;
+
+import java.util.Arrays;
+
+/**
+ * Sparse term-frequency vector of one article, as parallel arrays of {@link PhraseMatcher}
+ * pattern ids and hit counts. Stored in word_count_details as a BLOB of varints: the number
+ * of terms, then each id as the gap from the previous id followed by its count.
+ */
+public final class TermVector {
+
+    public static final TermVector EMPTY = new TermVector(new int[0], new int[0]);
+
+    private final int[] ids;
+    private final int[] counts;
+
+    public TermVector(int[] ids, int[] counts) {
+        this.ids = ids;
+        this.counts = counts;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int id(int index) {
+        return ids[index];
+    }
+
+    public int count(int index) {
+        return counts[index];
+    }
+
+    // Adds the counts into a dense feature array indexed by term id
+    public void addTo(int[] dense) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] < dense.length) {
+                dense[ids[i]] += counts[i];
+            }
+        }
+    }
+
+    /** Packs the non-zero entries of a dense frequency array, ids ascending. */
+    public static byte[] pack(int[] frequencies) {
+        int size = 0;
+        int bytes = 0;
+        int previous = 0;
+        for (int id = 0; id < frequencies.length; id++) {
+            if (frequencies[id] != 0) {
+                size++;
+                bytes += varintLength(id - previous) + varintLength(frequencies[id]);
+                previous = id;
+            }
+        }
+        byte[] packed = new byte[varintLength(size) + bytes];
+        int position = writeVarint(packed, 0, size);
+        previous = 0;
+        for (int id = 0; id < frequencies.length; id++) {
+            if (frequencies[id] != 0) {
+                position = writeVarint(packed, position, id - previous);
+                position = writeVarint(packed, position, frequencies[id]);
+                previous = id;
+            }
+        }
+        return packed;
+    }
+
+    public static TermVector unpack(byte[] packed) {
+        if (packed == null || packed.length == 0) {
+            return EMPTY;
+        }
+        int[] position = {0};
+        int size = readVarint(packed, position);
+        int[] ids = new int[size];
+        int[] counts = new int[size];
+        int previous = 0;
+        for (int i = 0; i < size; i++) {
+            previous += readVarint(packed, position);
+            ids[i] = previous;
+            counts[i] = readVarint(packed, position);
+        }
+        return new TermVector(ids, counts);
+    }
+
+    private static int varintLength(int value) {
+        int length = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    private static int writeVarint(byte[] out, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            out[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[position++] = (byte) value;
+        return position;
+    }
+
+    private static int readVarint(byte[] in, int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in[position[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "TermVector{ids=" + Arrays.toString(ids) + ", counts=" + Arrays.toString(counts) + "}";
+    }
+}
@@ -0,0 +1,170 @@
+package gemenielabs.sentiment.Lexicon;
+
+import java.util.Arrays;
+
+/**
+ * Single pass word scanner for article bodies. Words are split on spaces, lower-cased and
+ * stripped of everything but ASCII letters straight into a reusable buffer, stemmed in place
+ * and then fed to the {@link PhraseMatcher} without creating a String per word. Word
+ * boundaries are the same as splitting on " " and cleaning each token with
+ * {@code toLowerCase().replaceAll("[^a-zA-Z]", "")}.
+ *
+ * Word order is kept, so negation is scored in the same pass: after a negator such as "not",
+ * "never" or a "n't" contraction, the polarity of the next few words is flipped until the
+ * window runs out or a clause ends at ",", ".", ";", ":", "!" or "?".
+ */
+public final class WordScanner {
+
+    private static final ThreadLocal<WordScanner> LOCAL = new ThreadLocal<WordScanner>() {
+        @Override
+        protected WordScanner initialValue() {
+            return new WordScanner();
+        }
+    };
+
+    // Words after a negator whose polarity is flipped
+    public static final int NEGATION_WINDOW = 3;
+
+    private static final char[][] NEGATORS = {
+            "no".toCharArray(),
+            "not".toCharArray(),
+            "nor".toCharArray(),
+            "none".toCharArray(),
+            "never".toCharArray(),
+            "nobody".toCharArray(),
+            "nothing".toCharArray(),
+            "neither".toCharArray(),
+            "without".toCharArray(),
+            "cannot".toCharArray()};
+
+    private final Stemmer stemmer = new Stemmer();
+    private char[] buffer = new char[64];
+    private int[] frequencies = new int[0];
+
+    // Scanners keep state between words, so each thread gets its own
+    public static WordScanner get() {
+        return LOCAL.get();
+    }
+
+    // Counts with the default negation window
+    public void count(PhraseMatcher matcher, CharSequence body, int[] counts, int[] frequencies) {
+        count(matcher, body, counts, frequencies, NEGATION_WINDOW);
+    }
+
+    /**
+     * Counts positive and negative lexicon word and phrase hits in {@code body}.
+     *
+     * @param counts         receives the positive count at index 0 and the negative count at index 1.
+     * @param frequencies    per-pattern hit counts indexed by {@link PhraseMatcher} pattern id, or null.
+     * @param negationWindow words flipped after a negator, 0 for a plain bag-of-words count.
+     */
+    public void count(PhraseMatcher matcher, CharSequence body, int[] counts, int[] frequencies,
+                      int negationWindow) {
+        counts[0] = 0;
+        counts[1] = 0;
+        int state = matcher.start();
+        int length = 0;
+        int negatedWords = 0;
+        boolean contraction = false;
+        boolean clauseEnd = false;
+        int end = body.length();
+        for (int i = 0; i <= end; i++) {
+            char ch = i < end ? body.charAt(i) : ' ';
+            if (ch == ' ') {
+                if (length > 0) {
+                    boolean negator = negationWindow > 0 && isNegator(buffer, length, contraction);
+                    length = stemmer.stem(buffer, length);
+                    state = matcher.feedWord(state, buffer, length, counts, frequencies, negatedWords > 0);
+                    if (negatedWords > 0) {
+                        negatedWords--;
+                    }
+                    if (negator) {
+                        negatedWords = negationWindow;
+                    }
+                }
+                if (clauseEnd) {
+                    negatedWords = 0;
+                }
+                length = 0;
+                contraction = false;
+                clauseEnd = false;
+                continue;
+            }
+            char lower = toLowerLetter(ch);
+            if (lower != 0) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, length * 2);
+                }
+                buffer[length++] = lower;
+                clauseEnd = false;
+            } else if ((ch == '\'' || ch == '\u2019') && length > 0 && buffer[length - 1] == 'n') {
+                contraction = true;
+            } else if (isClauseEnd(ch)) {
+                clauseEnd = true;
+            }
+        }
+    }
+
+    /**
+     * Counts lexicon hits like {@link #count} and also returns the article's term frequencies
+     * packed as a {@link TermVector}. The dense per-pattern array is reused between articles.
+     */
+    public byte[] countTerms(PhraseMatcher matcher, CharSequence body, int[] counts) {
+        if (frequencies.length != matcher.patternCount()) {
+            frequencies = new int[matcher.patternCount()];
+        }
+        count(matcher, body, counts, frequencies);
+        byte[] packed = TermVector.pack(frequencies);
+        Arrays.fill(frequencies, 0);
+        return packed;
+    }
+
+    // "n't" contractions lose their apostrophe when cleaned, so they are caught while scanning
+    private static boolean isNegator(char[] word, int length, boolean contraction) {
+        if (contraction && length > 2 && word[length - 2] == 'n' && word[length - 1] == 't') {
+            return true;
+        }
+        for (char[] negator : NEGATORS) {
+            if (negator.length == length) {
+                int i = 0;
+                while (i < length && negator[i] == word[i]) {
+                    i++;
+                }
+                if (i == length) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isClauseEnd(char ch) {
+        switch (ch) {
+            case ',':
+            case '.':
+            case ';':
+            case ':':
+            case '!':
+            case '?':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // Returns the lower-case ASCII letter for ch, or 0 if the cleaning regex would drop it
+    static char toLowerLetter(char ch) {
+        if (ch >= 'a' && ch <= 'z') {
+            return ch;
+        }
+        if (ch >= 'A' && ch <= 'Z') {
+            return (char) (ch + ('a' - 'A'));
+        }
+        if (ch < 0x80) {
+            return 0;
+        }
+        // A handful of non-ASCII letters (e.g. the Kelvin sign) lower-case into ASCII
+        char lower = Character.toLowerCase(ch);
+        return lower >= 'a' && lower <= 'z' ? lower : 0;
+    }
+}
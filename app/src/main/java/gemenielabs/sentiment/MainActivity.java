@@ -40,6 +40,7 @@ public class MainActivity extends AppCompatActivity {
 
         // Initialize the database
         StockDatabase db = Room.databaseBuilder(getApplicationContext(), StockDatabase.class, "stocksdatabase")
+                .addMigrations(StockDatabase.MIGRATION_4_5)
                 .fallbackToDestructiveMigration().build();
         stockDao = db.stockDao();
 
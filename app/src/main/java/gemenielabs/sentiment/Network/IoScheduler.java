@@ -0,0 +1,398 @@
+package gemenielabs.sentiment.Network;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Runs the app's blocking network work off the common ForkJoinPool.
+ *
+ * <ul>
+ * <li>{@link #supplyAsync(Supplier)} runs tasks on a fixed set of I/O threads. Once the queue
+ * in front of them is full, the submitting thread waits for room instead of piling up work.
+ * {@link #supplyDetached(Supplier)} has threads of its own, so shared work such as sentiment
+ * batches still goes out while every I/O thread waits on it.</li>
+ * <li>{@link #execute(Request, ResponseHandler)} makes a request on the shared client with at
+ * most {@link #MAX_PER_HOST} requests in flight per host. Extra requests wait for a slot.</li>
+ * <li>Work started inside {@link Scope#run(Runnable)} belongs to that scope, including tasks it
+ * hands to {@link #supplyAsync(Supplier)}. {@link Scope#cancel()} cancels its queued tasks and
+ * in-flight calls, so a screen can drop its refresh when the user leaves it.</li>
+ * </ul>
+ *
+ * {@link #metrics()} reports queue depths and request latency.
+ */
+public final class IoScheduler {
+
+    public static final int WORKERS = 8;
+    public static final int DETACHED_WORKERS = 4;
+    public static final int QUEUE_CAPACITY = 64;
+    public static final int MAX_PER_HOST = 4;
+
+    // How often a request waiting for a host slot checks whether its scope was cancelled
+    private static final long CANCEL_POLL_MILLIS = 100;
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    // Shared by every request so they reuse one connection pool
+    private static final OkHttpClient CLIENT = new OkHttpClient().newBuilder()
+            .readTimeout(45, TimeUnit.SECONDS).build();
+
+    private static volatile IoScheduler instance;
+
+    private final ThreadPoolExecutor workers;
+    private final ThreadPoolExecutor detached;
+    private final int maxPerHost;
+    private final ConcurrentHashMap<String, Host> hosts = new ConcurrentHashMap<>();
+
+    public static IoScheduler get() {
+        if (instance == null) {
+            synchronized (IoScheduler.class) {
+                if (instance == null) {
+                    instance = new IoScheduler(WORKERS, DETACHED_WORKERS, QUEUE_CAPACITY, MAX_PER_HOST);
+                }
+            }
+        }
+        return instance;
+    }
+
+    IoScheduler(int workerCount, int detachedCount, int queueCapacity, int maxPerHost) {
+        this.maxPerHost = maxPerHost;
+        workers = newPool("io-", workerCount, queueCapacity);
+        detached = newPool("io-detached-", detachedCount, queueCapacity);
+    }
+
+    private static ThreadPoolExecutor newPool(String name, int threads, int queueCapacity) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Worker(runnable, name + count.incrementAndGet()),
+                (task, executor) -> {
+                    // An I/O thread blocked here could be the one that would drain the queue
+                    if (Thread.currentThread() instanceof Worker) {
+                        task.run();
+                        return;
+                    }
+                    // Back-pressure: wait for room rather than reject
+                    try {
+                        executor.getQueue().put(task);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException(e);
+                    }
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /** Reads the response; it is closed once this returns. */
+    public interface ResponseHandler<T> {
+        T handle(Response response) throws IOException;
+    }
+
+    /**
+     * Runs {@code supplier} on an I/O thread within the caller's scope. Called from an I/O thread
+     * it runs straight away on that thread, so a task waiting on its own subtasks cannot take
+     * every thread and leave them queued.
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return supplyAsync(CURRENT.get(), supplier, workers);
+    }
+
+    // Outside any scope, for work shared by several screens. Never runs on the caller's thread.
+    public <T> CompletableFuture<T> supplyDetached(Supplier<T> supplier) {
+        return supplyAsync(null, supplier, detached);
+    }
+
+    /**
+     * Makes {@code request} once its host has a free slot and hands the response to
+     * {@code handler}. Fails with an IOException, as OkHttp does, when the caller's scope is
+     * cancelled while the request waits or runs.
+     */
+    public <T> T execute(Request request, ResponseHandler<T> handler) throws IOException {
+        Scope scope = CURRENT.get();
+        Host host = host(request.url().host());
+        acquire(host, scope);
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        Call call = CLIENT.newCall(request);
+        try {
+            if (scope != null && !scope.track(call)) {
+                throw new IOException("Canceled");
+            }
+            try (Response response = call.execute()) {
+                T result = handler.handle(response);
+                succeeded = true;
+                return result;
+            }
+        } finally {
+            if (scope != null) {
+                scope.untrack(call);
+            }
+            host.record(System.nanoTime() - start, succeeded);
+            host.permits.release();
+        }
+    }
+
+    // The shared client, for calls that do not go through execute
+    public static OkHttpClient client() {
+        return CLIENT;
+    }
+
+    public Scope newScope() {
+        return new Scope();
+    }
+
+    // True when the calling thread works for a scope that has been cancelled
+    public static boolean isCancelled() {
+        Scope scope = CURRENT.get();
+        return scope != null && scope.isCancelled();
+    }
+
+    // The calling thread's scope, or null, for stages that finish on other threads
+    public static Scope currentScope() {
+        return CURRENT.get();
+    }
+
+    // Totals over every host
+    public Metrics metrics() {
+        Metrics metrics = new Metrics(workers.getQueue().size() + detached.getQueue().size(),
+                workers.getActiveCount() + detached.getActiveCount());
+        for (Host host : hosts.values()) {
+            host.addTo(metrics);
+        }
+        return metrics;
+    }
+
+    public Metrics metrics(String hostName) {
+        Metrics metrics = new Metrics(workers.getQueue().size() + detached.getQueue().size(),
+                workers.getActiveCount() + detached.getActiveCount());
+        Host host = hosts.get(hostName);
+        if (host != null) {
+            host.addTo(metrics);
+        }
+        return metrics;
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(Scope scope, Supplier<T> supplier, ThreadPoolExecutor pool) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (scope != null && !scope.track(future)) {
+            future.cancel(false);
+            return future;
+        }
+        Runnable task = () -> {
+            // Cancelled while it waited in the queue
+            if (future.isDone()) {
+                return;
+            }
+            Scope previous = CURRENT.get();
+            CURRENT.set(scope);
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                CURRENT.set(previous);
+                if (scope != null) {
+                    scope.untrack(future);
+                }
+            }
+        };
+        if (pool == workers && Thread.currentThread() instanceof Worker) {
+            task.run();
+        } else {
+            pool.execute(task);
+        }
+        return future;
+    }
+
+    private Host host(String name) {
+        Host host = hosts.get(name);
+        if (host == null) {
+            host = new Host(maxPerHost);
+            Host raced = hosts.putIfAbsent(name, host);
+            if (raced != null) {
+                host = raced;
+            }
+        }
+        return host;
+    }
+
+    private static void acquire(Host host, Scope scope) throws IOException {
+        host.waiting.incrementAndGet();
+        try {
+            while (!host.permits.tryAcquire(CANCEL_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (scope != null && scope.isCancelled()) {
+                    throw new IOException("Canceled");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a connection slot");
+        } finally {
+            host.waiting.decrementAndGet();
+        }
+    }
+
+    /** Work started for one screen, cancelled together. */
+    public static final class Scope {
+        // In-flight Calls and queued or running futures
+        private final Set<Object> tracked = new HashSet<>();
+        private boolean cancelled;
+
+        private Scope() {
+        }
+
+        // Runs task on the calling thread with this scope current
+        public void run(Runnable task) {
+            Scope previous = CURRENT.get();
+            CURRENT.set(this);
+            try {
+                task.run();
+            } finally {
+                CURRENT.set(previous);
+            }
+        }
+
+        public void cancel() {
+            List<Object> pending;
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                pending = new ArrayList<>(tracked);
+                tracked.clear();
+            }
+            for (Object work : pending) {
+                if (work instanceof Call) {
+                    ((Call) work).cancel();
+                } else {
+                    ((CompletableFuture<?>) work).cancel(false);
+                }
+            }
+        }
+
+        public synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        private synchronized boolean track(Object work) {
+            if (cancelled) {
+                return false;
+            }
+            tracked.add(work);
+            return true;
+        }
+
+        private synchronized void untrack(Object work) {
+            tracked.remove(work);
+        }
+    }
+
+    /** Snapshot of queue depths and request latency. */
+    public static final class Metrics {
+        private final int queuedTasks;
+        private final int activeTasks;
+        private int waitingRequests;
+        private int inFlightRequests;
+        private long completedRequests;
+        private long failedRequests;
+        private long totalNanos;
+        private long maxNanos;
+
+        private Metrics(int queuedTasks, int activeTasks) {
+            this.queuedTasks = queuedTasks;
+            this.activeTasks = activeTasks;
+        }
+
+        // Tasks waiting for an I/O thread
+        public int getQueuedTasks() {return queuedTasks;}
+
+        public int getActiveTasks() {return activeTasks;}
+
+        // Requests waiting for a host slot
+        public int getWaitingRequests() {return waitingRequests;}
+
+        public int getInFlightRequests() {return inFlightRequests;}
+
+        public long getCompletedRequests() {return completedRequests;}
+
+        public long getFailedRequests() {return failedRequests;}
+
+        public double getMeanLatencyMillis() {
+            long requests = completedRequests + failedRequests;
+            return requests == 0 ? 0 : totalNanos / 1e6 / requests;
+        }
+
+        public double getMaxLatencyMillis() {
+            return maxNanos / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "queued=%d active=%d waiting=%d inFlight=%d completed=%d failed=%d mean=%.1fms max=%.1fms",
+                    queuedTasks, activeTasks, waitingRequests, inFlightRequests, completedRequests,
+                    failedRequests, getMeanLatencyMillis(), getMaxLatencyMillis());
+        }
+    }
+
+    private static final class Host {
+        private final Semaphore permits;
+        private final int maxPermits;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private long completed;
+        private long failed;
+        private long totalNanos;
+        private long maxNanos;
+
+        Host(int maxPermits) {
+            this.permits = new Semaphore(maxPermits, true);
+            this.maxPermits = maxPermits;
+        }
+
+        synchronized void record(long nanos, boolean succeeded) {
+            if (succeeded) {
+                completed++;
+            } else {
+                failed++;
+            }
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        synchronized void addTo(Metrics metrics) {
+            metrics.waitingRequests += waiting.get();
+            metrics.inFlightRequests += maxPermits - permits.availablePermits();
+            metrics.completedRequests += completed;
+            metrics.failedRequests += failed;
+            metrics.totalNanos += totalNanos;
+            metrics.maxNanos = Math.max(metrics.maxNanos, maxNanos);
+        }
+    }
+
+    private static final class Worker extends Thread {
+        Worker(Runnable runnable, String name) {
+            super(runnable, name);
+            setDaemon(true);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package gemenielabs.sentiment.News;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads stories from fixture files saved from Polygon's news endpoint, one per ticker at
+ * {@code <directory>/<ticker>.json}, so refreshes can be benchmarked offline and repeatably.
+ * A ticker without a file has no news.
+ */
+public final class FileNewsSource implements NewsSource {
+
+    private final File directory;
+
+    public FileNewsSource(File directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void fetch(String ticker, String since, String date, Sink sink) throws IOException {
+        File file = new File(directory, ticker + ".json");
+        if (!file.isFile()) {
+            return;
+        }
+        try (Reader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            PolygonNewsReader.read(in, date, ticker, story -> {
+                if (story.getArticleDate().compareTo(since) >= 0) {
+                    sink.accept(story);
+                }
+            });
+        }
+        sink.checkpoint();
+    }
+}
@@ -0,0 +1,209 @@
+package gemenielabs.sentiment.News;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import gemenielabs.sentiment.DataProcessing.TextNormalizer;
+import gemenielabs.sentiment.Network.IoScheduler;
+import gemenielabs.sentiment.Room.NewsDetails;
+
+/**
+ * Queries several {@link NewsSource}s for a ticker at once and merges their stories into one
+ * sink. A story that another source already delivered, matched by the fingerprint of its text,
+ * is dropped. Repeats from the same source are passed on, since a source may carry a story under
+ * two URLs and its cursor moves past both.
+ *
+ * A single source runs on the caller's thread. Several run on threads of their own, so a slow
+ * source never holds a thread that other work waits for. Each source's timeout starts when it
+ * begins running. A source that runs out of time has its scope cancelled, and anything it hands
+ * over after that is dropped. Cancelling the caller's scope cancels every source.
+ */
+public final class NewsAggregator {
+
+    public static final long DEFAULT_TIMEOUT_MILLIS = 20000;
+
+    // How often deadlines and the caller's scope are checked
+    private static final long CANCEL_POLL_MILLIS = 100;
+
+    // Runs the sources when there are several; one thread per source while they run
+    private static final ExecutorService SOURCES = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "news-source");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Cancels sources that run past their deadline; daemon so it never keeps the process alive
+    private static final ScheduledExecutorService DEADLINES = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "news-deadlines");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final List<NewsSource> sources = new ArrayList<>();
+    private final List<Long> timeouts = new ArrayList<>();
+
+    public NewsAggregator add(NewsSource source, long timeoutMillis) {
+        sources.add(source);
+        timeouts.add(timeoutMillis);
+        return this;
+    }
+
+    /**
+     * Runs every source for {@code ticker} and waits until each has finished or run out of time.
+     *
+     * @return how many stories were handed to {@code sink}.
+     */
+    public int fetch(String ticker, String since, String date, NewsSource.Sink sink) {
+        IoScheduler.Scope caller = IoScheduler.currentScope();
+        // Which source first delivered each text
+        Map<Long, NewsSource> delivered = new ConcurrentHashMap<>();
+        AtomicInteger merged = new AtomicInteger();
+
+        List<Run> runs = new ArrayList<>();
+        for (int i = 0; i < sources.size(); i++) {
+            NewsSource source = sources.get(i);
+            IoScheduler.Scope scope = IoScheduler.get().newScope();
+            NewsSource.Sink sourceSink = new NewsSource.Sink() {
+                @Override
+                public void accept(NewsDetails story) {
+                    if (scope.isCancelled()) {
+                        return;
+                    }
+                    NewsSource first = delivered.putIfAbsent(fingerprint(story), source);
+                    if (first == null || first == source) {
+                        sink.accept(story);
+                        merged.incrementAndGet();
+                    }
+                }
+
+                @Override
+                public void checkpoint() {
+                    sink.checkpoint();
+                }
+            };
+            runs.add(new Run(source, TimeUnit.MILLISECONDS.toNanos(timeouts.get(i)), scope,
+                    () -> source.fetch(ticker, since, date, sourceSink)));
+        }
+
+        ScheduledFuture<?> watch = DEADLINES.scheduleWithFixedDelay(() -> {
+            for (Run run : runs) {
+                run.checkDeadline(caller);
+            }
+        }, CANCEL_POLL_MILLIS, CANCEL_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        try {
+            if (runs.size() == 1) {
+                runs.get(0).run();
+            } else {
+                for (Run run : runs) {
+                    SOURCES.execute(run);
+                }
+                for (Run run : runs) {
+                    run.await();
+                }
+            }
+        } finally {
+            watch.cancel(false);
+        }
+        sink.checkpoint();
+        Log.i("NEWS", ticker + " merged " + merged.get() + " stories from " + sources.size() + " sources");
+        return merged.get();
+    }
+
+    private interface Fetch {
+        void fetch() throws IOException;
+    }
+
+    // One source's fetch, timed from when it starts running
+    private static final class Run implements Runnable {
+        private final NewsSource source;
+        private final long timeoutNanos;
+        private final IoScheduler.Scope scope;
+        private final Fetch fetch;
+        private final CountDownLatch done = new CountDownLatch(1);
+        // 0 until the fetch starts
+        private volatile long started;
+
+        Run(NewsSource source, long timeoutNanos, IoScheduler.Scope scope, Fetch fetch) {
+            this.source = source;
+            this.timeoutNanos = timeoutNanos;
+            this.scope = scope;
+            this.fetch = fetch;
+        }
+
+        @Override
+        public void run() {
+            started = System.nanoTime();
+            try {
+                scope.run(() -> {
+                    try {
+                        fetch.fetch();
+                    } catch (IOException e) {
+                        if (!scope.isCancelled()) {
+                            Log.i("NEWS", source.name() + " failed: " + e);
+                        }
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();
+                    }
+                });
+            } finally {
+                done.countDown();
+            }
+        }
+
+        void checkDeadline(IoScheduler.Scope caller) {
+            if (done.getCount() == 0 || scope.isCancelled()) {
+                return;
+            }
+            if (caller != null && caller.isCancelled()) {
+                Log.i("NEWS", source.name() + " cancelled");
+                scope.cancel();
+            } else if (started != 0 && System.nanoTime() - started > timeoutNanos) {
+                Log.i("NEWS", source.name() + " timed out");
+                scope.cancel();
+            }
+        }
+
+        // Returns once the fetch has finished or its scope was cancelled
+        void await() {
+            try {
+                while (!done.await(CANCEL_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (scope.isCancelled()) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                scope.cancel();
+            }
+        }
+    }
+
+    // Syndicated copies carry the same text under different URLs
+    private static long fingerprint(NewsDetails story) {
+        String text = story.getArticleDescription();
+        if (isBlank(text)) {
+            text = story.getTitle();
+        }
+        if (isBlank(text)) {
+            text = story.getAddress();
+        }
+        return TextNormalizer.fingerprint(text == null ? "" : text);
+    }
+
+    // Missing fields are read as "" and JSON nulls as "null"
+    private static boolean isBlank(String text) {
+        return text == null || text.trim().isEmpty() || text.equals("null");
+    }
+}
@@ -0,0 +1,38 @@
+package gemenielabs.sentiment.News;
+
+import java.io.IOException;
+
+import gemenielabs.sentiment.Room.NewsDetails;
+
+/**
+ * A provider of news stories for a ticker, normalized to {@link NewsDetails}. Sources stream
+ * what they find into a {@link Sink} as it is read rather than returning it whole, so a large
+ * backlog is never held in memory. {@link NewsAggregator} runs several of them together.
+ */
+public interface NewsSource {
+
+    /**
+     * Receives the stories a source finds. Sources run by {@link NewsAggregator} share one, so
+     * it is called from several threads.
+     */
+    interface Sink {
+        void accept(NewsDetails story);
+
+        // Every story accepted so far is stored once this returns. Sources that remember how far
+        // they got call it before saving that.
+        void checkpoint();
+    }
+
+    // Short name for logs
+    String name();
+
+    /**
+     * Hands each story about {@code ticker} published on or after {@code since} to {@code sink}.
+     * Runs on the calling thread, so call it off the main thread. Sources stop early once
+     * {@link gemenielabs.sentiment.Network.IoScheduler#isCancelled()}.
+     *
+     * @param since oldest publish date wanted, as yyyy-MM-dd.
+     * @param date  refresh date stored with every story.
+     */
+    void fetch(String ticker, String since, String date, Sink sink) throws IOException;
+}
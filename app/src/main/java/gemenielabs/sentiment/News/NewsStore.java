@@ -0,0 +1,89 @@
+package gemenielabs.sentiment.News;
+
+import android.util.Log;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import gemenielabs.sentiment.Room.NewsDetails;
+import gemenielabs.sentiment.Room.NewsTickerDetails;
+import gemenielabs.sentiment.Room.StockDao;
+
+/**
+ * Sink that stores the stories fetched for a ticker. Stories are stored once, keyed by URL, and
+ * linked to the ticker and to every ticker in their article_tickers, so a portfolio ticker
+ * mentioned by a story another ticker fetched finds it already stored. Writes go out in small
+ * batches; {@link #checkpoint()} writes whatever is pending.
+ */
+public final class NewsStore implements NewsSource.Sink {
+
+    // Stories written to the database per insert
+    private static final int INSERT_BATCH = 50;
+
+    private final StockDao store;
+    private final String ticker;
+    private final Set<String> knownUrls;
+    private final List<NewsDetails> pending = new ArrayList<>(INSERT_BATCH);
+    private final List<NewsTickerDetails> links = new ArrayList<>();
+
+    public NewsStore(StockDao store, String ticker) {
+        this.store = store;
+        this.ticker = ticker;
+        // URLs already linked to the ticker, so known stories are dropped without a query
+        knownUrls = new HashSet<>(store.getNewsUrls(ticker));
+    }
+
+    @Override
+    public synchronized void accept(NewsDetails story) {
+        if (!knownUrls.add(story.getAddress())) {
+            return;
+        }
+        Log.i("NEWS", story.toString());
+        pending.add(story);
+        links.add(new NewsTickerDetails(ticker, story.getAddress()));
+        for (String mentioned : mentionedTickers(story.getArticleTickers())) {
+            if (!mentioned.equals(ticker)) {
+                links.add(new NewsTickerDetails(mentioned, story.getAddress()));
+            }
+        }
+        if (pending.size() == INSERT_BATCH) {
+            checkpoint();
+        }
+    }
+
+    // The unique index skips any story already stored for another ticker
+    @Override
+    public synchronized void checkpoint() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        store.insertNewNewsContent(pending);
+        store.insertNewsTickers(links);
+        pending.clear();
+        links.clear();
+    }
+
+    // Tickers in a story's article_tickers, stored as the JSON array Polygon sent
+    static List<String> mentionedTickers(String articleTickers) {
+        List<String> tickers = new ArrayList<>();
+        try {
+            JsonElement parsed = JsonParser.parseString(articleTickers);
+            if (parsed.isJsonArray()) {
+                for (JsonElement element : parsed.getAsJsonArray()) {
+                    if (element.isJsonPrimitive() && !element.getAsString().isEmpty()) {
+                        tickers.add(element.getAsString());
+                    }
+                }
+            }
+        } catch (JsonParseException e) {
+            Log.i("NEWS", "Unreadable article tickers " + articleTickers);
+        }
+        return tickers;
+    }
+}
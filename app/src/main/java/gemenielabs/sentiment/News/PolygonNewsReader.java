@@ -0,0 +1,146 @@
+package gemenielabs.sentiment.News;
+
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+import gemenielabs.sentiment.Room.NewsDetails;
+
+/**
+ * Streams a Polygon /v2/reference/news response, handing each entry of "results" on as a
+ * {@link NewsDetails} as soon as it is decoded. Only the current entry is held in memory, so
+ * the heap used does not grow with the page size.
+ *
+ * Fields are read the way JSONObject.optString read them before: missing ones are "", and
+ * arrays such as "tickers" keep their compact JSON text.
+ *
+ * {@link #read} returns the page's "next_url" cursor and the newest "published_utc" in it, which
+ * {@link PolygonNewsSource} uses to carry on where the page stopped.
+ */
+public final class PolygonNewsReader {
+
+    private PolygonNewsReader() {
+    }
+
+    /**
+     * @param date   refresh date stored with every article.
+     * @param ticker ticker the news was requested for.
+     */
+    public static Page read(Reader in, String date, String ticker, Consumer<NewsDetails> sink) throws IOException {
+        Page page = new Page();
+        try (JsonReader reader = new JsonReader(in)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("results") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        NewsDetails details = readResult(reader, date, ticker, page);
+                        if (details != null) {
+                            sink.accept(details);
+                        }
+                    }
+                    reader.endArray();
+                } else if (name.equals("next_url") && reader.peek() == JsonToken.STRING) {
+                    page.nextUrl = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IllegalStateException e) {
+            // Gson reports a token of the wrong type this way
+            throw new IOException("Unexpected news response: " + e.getMessage(), e);
+        }
+        return page;
+    }
+
+    private static NewsDetails readResult(JsonReader reader, String date, String ticker, Page page) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        String articleUrl = "";
+        String title = "";
+        String publishedUtc = "";
+        String publisher = "";
+        String articleTickers = "";
+        String ampUrl = "";
+        String articleDescription = "";
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "article_url":
+                    articleUrl = readString(reader);
+                    break;
+                case "title":
+                    title = readString(reader);
+                    break;
+                case "published_utc":
+                    publishedUtc = readString(reader);
+                    break;
+                case "name":
+                    publisher = readString(reader);
+                    break;
+                case "tickers":
+                    articleTickers = readString(reader);
+                    break;
+                case "amp_url":
+                    ampUrl = readString(reader);
+                    break;
+                case "description":
+                    articleDescription = readString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        // ISO-8601 UTC timestamps of one format order the same as text
+        if (!publishedUtc.isEmpty() && (page.newestPublished == null
+                || publishedUtc.compareTo(page.newestPublished) > 0)) {
+            page.newestPublished = publishedUtc;
+        }
+        String articleDate = publishedUtc.split("T")[0];
+        return new NewsDetails(date, ticker, title, articleDate, articleUrl, articleTickers, ampUrl,
+                publisher, articleDescription);
+    }
+
+    // Any value as text, like optString: strings as they are, everything else as its JSON
+    private static String readString(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case STRING:
+            case NUMBER:
+                return reader.nextString();
+            case BOOLEAN:
+                return String.valueOf(reader.nextBoolean());
+            case NULL:
+                reader.nextNull();
+                return "null";
+            default:
+                return JsonParser.parseReader(reader).toString();
+        }
+    }
+
+    // What a page says about the pages around it
+    public static final class Page {
+        private String nextUrl;
+        private String newestPublished;
+
+        // Cursor for the next, older page, null on the last one
+        public String getNextUrl() {
+            return nextUrl;
+        }
+
+        // Newest published_utc on the page, null when it had no articles
+        public String getNewestPublished() {
+            return newestPublished;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package gemenielabs.sentiment.News;
+
+import android.util.Log;
+
+import java.io.IOException;
+
+import gemenielabs.sentiment.BuildConfig;
+import gemenielabs.sentiment.Network.IoScheduler;
+import gemenielabs.sentiment.Room.NewsSyncState;
+import gemenielabs.sentiment.Room.StockDao;
+import okhttp3.Request;
+
+/**
+ * Incremental sync of Polygon news for a ticker. Pages come newest first and the sync follows
+ * their next_url cursors, fetching at most {@code pageBudget} pages per call.
+ *
+ * A {@link NewsSyncState} per ticker keeps the newest published_utc of the last sync that
+ * reached its final page, and later syncs ask only for articles published after it. The state
+ * is saved after every page, once the sink has stored the page, so a sync stopped by the budget,
+ * a failed request or a cancelled scope resumes from its cursor on the next call. Articles
+ * published in the meantime are picked up by the sync after that one.
+ */
+public final class PolygonNewsSource implements NewsSource {
+
+    public static final String POLYGON_URL = "https://api.polygon.io";
+    public static final int PAGE_BUDGET = 5;
+    public static final int PAGE_SIZE = 100;
+
+    private final StockDao store;
+    private final String baseUrl;
+    private final String apiKey;
+    private final int pageBudget;
+    private final int pageSize;
+
+    /**
+     * @param store      where the sync state is kept.
+     * @param baseUrl    scheme and host of the news API, a local server in tests.
+     * @param pageBudget most pages fetched by one {@link #fetch} call.
+     */
+    public PolygonNewsSource(StockDao store, String baseUrl, String apiKey, int pageBudget, int pageSize) {
+        this.store = store;
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+        this.pageBudget = pageBudget;
+        this.pageSize = pageSize;
+    }
+
+    public static PolygonNewsSource polygon(StockDao store) {
+        return new PolygonNewsSource(store, POLYGON_URL, BuildConfig.POLYGON_API_KEY, PAGE_BUDGET, PAGE_SIZE);
+    }
+
+    @Override
+    public String name() {
+        return "polygon";
+    }
+
+    /**
+     * Fetches the news not synced yet. {@code since} only applies to a ticker never synced
+     * before. Fails on the first page that cannot be read, keeping the pages before it.
+     */
+    @Override
+    public void fetch(String ticker, String since, String date, Sink sink) throws IOException {
+        NewsSyncState state = store.getNewsSyncState(ticker);
+        if (state == null) {
+            state = new NewsSyncState(ticker);
+        }
+
+        String url = state.getCursor() != null ? withKey(state.getCursor()) : firstPage(ticker, state, since);
+        int pages = 0;
+        try {
+            while (url != null && pages < pageBudget && !IoScheduler.isCancelled()) {
+                PolygonNewsReader.Page page = fetchPage(url, ticker, date, sink);
+                // Stories handed over once the scope was cancelled may have been dropped
+                if (IoScheduler.isCancelled()) {
+                    break;
+                }
+                sink.checkpoint();
+                pages++;
+
+                state.setPendingMark(newest(state.getPendingMark(), page.getNewestPublished()));
+                if (page.getNextUrl() == null) {
+                    state.setHighWaterMark(newest(state.getHighWaterMark(), state.getPendingMark()));
+                    state.setPendingMark(null);
+                    state.setCursor(null);
+                    url = null;
+                } else {
+                    state.setCursor(page.getNextUrl());
+                    url = withKey(page.getNextUrl());
+                }
+                store.insertNewsSyncState(state);
+            }
+        } finally {
+            Log.i("NEWS", ticker + " synced " + pages + " pages, " +
+                    (state.getCursor() == null ? "up to date" : "more to fetch"));
+        }
+    }
+
+    private String firstPage(String ticker, NewsSyncState state, String since) {
+        String from = state.getHighWaterMark() != null
+                ? "&published_utc.gt=" + state.getHighWaterMark()
+                : "&published_utc.gte=" + since;
+        return withKey(baseUrl + "/v2/reference/news?ticker=" + ticker + from +
+                "&order=desc&sort=published_utc&limit=" + pageSize);
+    }
+
+    // next_url leaves out the key, so it is added here and never stored
+    private String withKey(String url) {
+        return url + (url.contains("?") ? "&" : "?") + "apiKey=" + apiKey;
+    }
+
+    // Streams the page's stories into the sink, the page is never held whole
+    private PolygonNewsReader.Page fetchPage(String url, String ticker, String date, Sink sink) throws IOException {
+        Request request = new Request.Builder()
+                .url(url)
+                .addHeader("Content-Type", "application/json")
+                .build();
+        return IoScheduler.get().execute(request, response -> {
+            if (!response.isSuccessful()) {
+                throw new IOException("News request failed: " + response.code());
+            }
+            return PolygonNewsReader.read(response.body().charStream(), date, ticker, sink::accept);
+        });
+    }
+
+    private static String newest(String a, String b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.compareTo(b) >= 0 ? a : b;
+    }
+}
@@ -3,9 +3,10 @@ package gemenielabs.sentiment.Room;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "news_details")
+@Entity(tableName = "news_details", indices = {@Index(value = {"article_url"}, unique = true)})
 public class NewsDetails {
 
     @PrimaryKey(autoGenerate = true)
@@ -14,6 +15,7 @@ public class NewsDetails {
     @ColumnInfo(name = "date")
     public String date;
 
+    // Ticker the story was first fetched for, news_tickers links it to every ticker it concerns
     @ColumnInfo(name = "ticker")
     public String ticker;
 
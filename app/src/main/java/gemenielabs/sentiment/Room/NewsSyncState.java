@@ -0,0 +1,64 @@
+package gemenielabs.sentiment.Room;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+// How far news for a ticker has been fetched, see PolygonNewsSource
+@Entity(tableName = "news_sync_state")
+public class NewsSyncState {
+    @PrimaryKey
+    @ColumnInfo(name = "ticker")
+    @NonNull
+    public String ticker;
+
+    // Newest published_utc of a sync that ran to its last page
+    @ColumnInfo(name = "high_water_mark")
+    public String highWaterMark;
+
+    // next_url of an unfinished sync, null when there is nothing to resume
+    @ColumnInfo(name = "cursor")
+    public String cursor;
+
+    // Newest published_utc the unfinished sync has seen, becomes the mark once it finishes
+    @ColumnInfo(name = "pending_mark")
+    public String pendingMark;
+
+    public NewsSyncState(@NonNull String ticker) {
+        this.ticker = ticker;
+    }
+
+    @NonNull
+    public String getTicker() {
+        return ticker;
+    }
+
+    public void setTicker(@NonNull String ticker) {
+        this.ticker = ticker;
+    }
+
+    public String getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public void setHighWaterMark(String highWaterMark) {
+        this.highWaterMark = highWaterMark;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public String getPendingMark() {
+        return pendingMark;
+    }
+
+    public void setPendingMark(String pendingMark) {
+        this.pendingMark = pendingMark;
+    }
+}
@@ -0,0 +1,43 @@
+package gemenielabs.sentiment.Room;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+// Links a stored article to each ticker it was fetched for or mentions
+@Entity(tableName = "news_tickers", primaryKeys = {"ticker", "article_url"},
+        indices = {@Index(value = {"article_url"})})
+public class NewsTickerDetails {
+
+    @ColumnInfo(name = "ticker")
+    @NonNull
+    public String ticker;
+
+    @ColumnInfo(name = "article_url")
+    @NonNull
+    public String articleUrl;
+
+    public NewsTickerDetails(@NonNull String ticker, @NonNull String articleUrl) {
+        this.ticker = ticker;
+        this.articleUrl = articleUrl;
+    }
+
+    @NonNull
+    public String getTicker() {
+        return ticker;
+    }
+
+    public void setTicker(@NonNull String ticker) {
+        this.ticker = ticker;
+    }
+
+    @NonNull
+    public String getArticleUrl() {
+        return articleUrl;
+    }
+
+    public void setArticleUrl(@NonNull String articleUrl) {
+        this.articleUrl = articleUrl;
+    }
+}
@@ -22,12 +22,25 @@ public interface StockDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertNewsContent(NewsDetails newsDetails);
 
+    // Stories already stored are skipped by the unique index on article_url, their ids come back as -1
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long[] insertNewNewsContent(List<NewsDetails> newsDetails);
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertNewsTickers(List<NewsTickerDetails> newsTickerDetails);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertNewsSyncState(NewsSyncState newsSyncState);
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertWordCountContent(WordCountDetails wordCountDetails);
 
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertPortfolioDetails(PortfolioDetails portfolioDetails);
 
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertTokenDetails(TokenDetails tokenDetails);
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertCombinedWordDetails(CombinedWordDetails combinedWordDetails);
 
@@ -64,17 +77,42 @@ public interface StockDao {
     @Query("SELECT * FROM stock_details WHERE ticker = :ticker ORDER BY date DESC")
     List<StockDetails> getStockDetails(String ticker);
 
-    @Query("SELECT * FROM news_details WHERE ticker = :ticker ORDER BY date DESC")
+    // Every story linked to the ticker, shared ones carry the ticker asked for
+    @Query("SELECT news_details.id, news_details.date, news_tickers.ticker, news_details.article_tickers, " +
+            "news_details.title, news_details.article_date, news_details.article_url, news_details.publisher, " +
+            "news_details.amp_url, news_details.article_description FROM news_details " +
+            "INNER JOIN news_tickers ON news_tickers.article_url = news_details.article_url " +
+            "WHERE news_tickers.ticker = :ticker ORDER BY news_details.date DESC")
     List<NewsDetails> getNewsDetails(String ticker);
 
+    @Query("SELECT article_url FROM news_tickers WHERE ticker = :ticker")
+    List<String> getNewsUrls(String ticker);
+
+    @Query("SELECT * FROM news_sync_state WHERE ticker = :ticker")
+    NewsSyncState getNewsSyncState(String ticker);
+
     @Query("SELECT * FROM word_count_details WHERE ticker = :ticker ORDER BY date DESC")
     List<WordCountDetails> getWordCountDetails(String ticker);
 
     @Query("SELECT * FROM word_count_details WHERE ticker = :ticker And date = :date")
     List<WordCountDetails> getWordCountDetailsDate(String ticker, String date);
 
-    @Query("SELECT * FROM word_count_details WHERE ticker = :ticker AND hash = :hash")
-    WordCountDetails getSingleHashedWordCountDetails(String ticker, int hash);
+    @Query("SELECT * FROM word_count_details WHERE ticker = :ticker AND fingerprint = :fingerprint")
+    WordCountDetails getSingleHashedWordCountDetails(String ticker, long fingerprint);
+
+    // A sentiment result for the article stored under any ticker
+    @Query("SELECT * FROM word_count_details WHERE fingerprint = :fingerprint AND sentiment != 'fail' " +
+            "AND sentiment != 'No News Data' LIMIT 1")
+    WordCountDetails getScoredWordCountDetails(long fingerprint);
+
+    @Query("SELECT sim_hash FROM word_count_details WHERE ticker = :ticker AND sim_hash != 0")
+    List<Long> getSimHashes(String ticker);
+
+    @Query("SELECT * FROM word_count_details WHERE ticker = :ticker AND lexicon_version != :version AND sentiment != 'No News Data'")
+    List<WordCountDetails> getStaleWordCountDetails(String ticker, int version);
+
+    @Query("SELECT term_frequencies FROM word_count_details WHERE ticker = :ticker AND date = :date")
+    List<byte[]> getTermFrequenciesDate(String ticker, String date);
 
     @Query("SELECT * FROM combined_word_count_details WHERE ticker = :ticker ORDER BY date DESC")
     List<CombinedWordDetails> getCombinedWordDetails(String ticker);
@@ -94,4 +132,16 @@ public interface StockDao {
     @Query("SELECT * FROM symbol_details WHERE ticker = :ticker")
     SymbolDetails getSingleSymbolDetails(String ticker);
 
+    @Query("SELECT * FROM token_details WHERE fingerprint = :fingerprint AND max_len = :maxLen AND vocab_id = :vocabId")
+    TokenDetails getTokenDetails(long fingerprint, int maxLen, long vocabId);
+
+    @Query("UPDATE token_details SET last_used = :lastUsed " +
+            "WHERE fingerprint = :fingerprint AND max_len = :maxLen AND vocab_id = :vocabId")
+    void touchTokenDetails(long fingerprint, int maxLen, long vocabId, long lastUsed);
+
+    // Drops encodings of other vocabularies and all but the keep most recently used of this one
+    @Query("DELETE FROM token_details WHERE vocab_id != :vocabId OR rowid NOT IN " +
+            "(SELECT rowid FROM token_details WHERE vocab_id = :vocabId ORDER BY last_used DESC LIMIT :keep)")
+    void pruneTokenDetails(long vocabId, int keep);
+
 }
\ No newline at end of file
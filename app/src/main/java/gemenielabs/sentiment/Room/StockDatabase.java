@@ -1,14 +1,78 @@
 package gemenielabs.sentiment.Room;
 
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import gemenielabs.sentiment.DataProcessing.Fingerprint;
+import gemenielabs.sentiment.DataProcessing.TextNormalizer;
 
 @Database(entities = {StockDetails.class, SymbolDetails.class,NewsDetails.class,
-        PortfolioDetails.class, WordCountDetails.class, CombinedWordDetails.class},
-         version = 4)
+        PortfolioDetails.class, WordCountDetails.class, CombinedWordDetails.class,
+        TokenDetails.class, NewsSyncState.class, NewsTickerDetails.class},
+         version = 5)
 public abstract class StockDatabase extends RoomDatabase {
 
     public abstract StockDao stockDao();
-}
 
+    // Keeps the portfolio, stored news and sentiment. Apart from the int hash of
+    // word_count_details, which is replaced by its fingerprint, every change from version 4 adds
+    // a column, table or index.
+    public static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            // SQLite cannot drop a column here, so the table is copied without it
+            database.execSQL("CREATE TABLE IF NOT EXISTS `word_count_details_new` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`date` TEXT, `fingerprint` INTEGER NOT NULL, `sim_hash` INTEGER NOT NULL, `ticker` TEXT, " +
+                    "`positive` INTEGER NOT NULL, `negative` INTEGER NOT NULL, `next_day` REAL NOT NULL, " +
+                    "`two_weeks` REAL NOT NULL, `one_month` REAL NOT NULL, `body` TEXT, `sentiment` TEXT, " +
+                    "`sentiment_number` REAL NOT NULL, `term_frequencies` BLOB, `lexicon_version` INTEGER NOT NULL)");
+            database.execSQL("INSERT INTO `word_count_details_new` (`id`, `date`, `fingerprint`, `sim_hash`, `ticker`, " +
+                    "`positive`, `negative`, `next_day`, `two_weeks`, `one_month`, `body`, `sentiment`, " +
+                    "`sentiment_number`, `lexicon_version`) SELECT `id`, `date`, 0, 0, `ticker`, `positive`, " +
+                    "`negative`, `next_day`, `two_weeks`, `one_month`, `body`, `sentiment`, `sentiment_number`, 0 " +
+                    "FROM `word_count_details`");
+            database.execSQL("DROP TABLE `word_count_details`");
+            database.execSQL("ALTER TABLE `word_count_details_new` RENAME TO `word_count_details`");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_word_count_details_ticker_fingerprint` ON `word_count_details` (`ticker`, `fingerprint`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_word_count_details_fingerprint` ON `word_count_details` (`fingerprint`)");
+            fingerprintStoredArticles(database);
 
+            // Link each stored article to its ticker before copies fetched for other tickers are merged
+            database.execSQL("CREATE TABLE IF NOT EXISTS `news_tickers` (`ticker` TEXT NOT NULL, `article_url` TEXT NOT NULL, PRIMARY KEY(`ticker`, `article_url`))");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_news_tickers_article_url` ON `news_tickers` (`article_url`)");
+            database.execSQL("INSERT OR IGNORE INTO `news_tickers` (`ticker`, `article_url`) SELECT `ticker`, `article_url` " +
+                    "FROM `news_details` WHERE `ticker` IS NOT NULL AND `article_url` IS NOT NULL");
+            database.execSQL("DELETE FROM `news_details` WHERE `article_url` IS NOT NULL AND `id` NOT IN " +
+                    "(SELECT MIN(`id`) FROM `news_details` WHERE `article_url` IS NOT NULL GROUP BY `article_url`)");
+            database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_news_details_article_url` ON `news_details` (`article_url`)");
+
+            database.execSQL("CREATE TABLE IF NOT EXISTS `token_details` (`fingerprint` INTEGER NOT NULL, `max_len` INTEGER NOT NULL, " +
+                    "`vocab_id` INTEGER NOT NULL, `token_ids` BLOB, `last_used` INTEGER NOT NULL, PRIMARY KEY(`fingerprint`, `max_len`, `vocab_id`))");
+            database.execSQL("CREATE TABLE IF NOT EXISTS `news_sync_state` (`ticker` TEXT NOT NULL, `high_water_mark` TEXT, `cursor` TEXT, `pending_mark` TEXT, PRIMARY KEY(`ticker`))");
+        }
+    };
+
+    // Stored rows are looked up by fingerprint, so fill it in from the bodies they were scored on.
+    // Their lexicon version stays 0, and the next refresh rescores their counts.
+    private static void fingerprintStoredArticles(SupportSQLiteDatabase database) {
+        try (Cursor cursor = database.query("SELECT `id`, `body`, `sentiment` FROM `word_count_details`")) {
+            while (cursor.moveToNext()) {
+                String body = cursor.getString(1);
+                String sentiment = cursor.getString(2);
+                // Placeholder rows for days without news are fingerprinted on their sentiment
+                if ("No News Data".equals(sentiment)) {
+                    database.execSQL("UPDATE `word_count_details` SET `fingerprint` = ? WHERE `id` = ?",
+                            new Object[]{TextNormalizer.fingerprint(sentiment), cursor.getInt(0)});
+                } else if (body != null) {
+                    database.execSQL("UPDATE `word_count_details` SET `fingerprint` = ?, `sim_hash` = ? WHERE `id` = ?",
+                            new Object[]{TextNormalizer.fingerprint(body), Fingerprint.simHash(body), cursor.getInt(0)});
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package gemenielabs.sentiment.Room;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+@Entity(tableName = "token_details", primaryKeys = {"fingerprint", "max_len", "vocab_id"})
+public class TokenDetails {
+
+    @ColumnInfo(name = "fingerprint")
+    public long fingerprint;
+
+    @ColumnInfo(name = "max_len")
+    public int maxLen;
+
+    // BertTokenizer.vocabId of the vocabulary the ids belong to
+    @ColumnInfo(name = "vocab_id")
+    public long vocabId;
+
+    @ColumnInfo(name = "token_ids", typeAffinity = ColumnInfo.BLOB)
+    public byte[] tokenIds;
+
+    @ColumnInfo(name = "last_used")
+    public long lastUsed;
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(long fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public int getMaxLen() {
+        return maxLen;
+    }
+
+    public void setMaxLen(int maxLen) {
+        this.maxLen = maxLen;
+    }
+
+    public long getVocabId() {
+        return vocabId;
+    }
+
+    public void setVocabId(long vocabId) {
+        this.vocabId = vocabId;
+    }
+
+    public byte[] getTokenIds() {
+        return tokenIds;
+    }
+
+    public void setTokenIds(byte[] tokenIds) {
+        this.tokenIds = tokenIds;
+    }
+
+    public long getLastUsed() {
+        return lastUsed;
+    }
+
+    public void setLastUsed(long lastUsed) {
+        this.lastUsed = lastUsed;
+    }
+}
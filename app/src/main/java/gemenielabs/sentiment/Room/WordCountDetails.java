@@ -2,9 +2,10 @@ package gemenielabs.sentiment.Room;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "word_count_details")
+@Entity(tableName = "word_count_details", indices = {@Index(value = {"ticker", "fingerprint"}), @Index(value = {"fingerprint"})})
 public class WordCountDetails {
     @PrimaryKey(autoGenerate = true)
     public int id;
@@ -12,16 +13,27 @@ public class WordCountDetails {
     @ColumnInfo(name = "date")
     public String date;
 
-    public int getHash() {
-        return hash;
+    public long getFingerprint() {
+        return fingerprint;
     }
 
-    public void setHash(int hash) {
-        this.hash = hash;
+    public void setFingerprint(long fingerprint) {
+        this.fingerprint = fingerprint;
     }
 
-    @ColumnInfo(name = "hash")
-    public int hash;
+    @ColumnInfo(name = "fingerprint")
+    public long fingerprint;
+
+    public long getSimHash() {
+        return simHash;
+    }
+
+    public void setSimHash(long simHash) {
+        this.simHash = simHash;
+    }
+
+    @ColumnInfo(name = "sim_hash")
+    public long simHash;
 
     @ColumnInfo(name = "ticker")
     public String ticker;
@@ -50,6 +62,12 @@ public class WordCountDetails {
     @ColumnInfo(name = "sentiment_number")
     public double sentimentNumber;
 
+    @ColumnInfo(name = "term_frequencies", typeAffinity = ColumnInfo.BLOB)
+    public byte[] termFrequencies;
+
+    @ColumnInfo(name = "lexicon_version")
+    public int lexiconVersion;
+
     public String getDate() {
         return date;
     }
@@ -130,11 +148,27 @@ public class WordCountDetails {
         this.oneMnth = oneMnth;
     }
 
-    public WordCountDetails(String date, int hash, String ticker, int positive, int negative,
+    public byte[] getTermFrequencies() {
+        return termFrequencies;
+    }
+
+    public void setTermFrequencies(byte[] termFrequencies) {
+        this.termFrequencies = termFrequencies;
+    }
+
+    public int getLexiconVersion() {
+        return lexiconVersion;
+    }
+
+    public void setLexiconVersion(int lexiconVersion) {
+        this.lexiconVersion = lexiconVersion;
+    }
+
+    public WordCountDetails(String date, long fingerprint, String ticker, int positive, int negative,
                             double nextDay, double twoWks, double oneMnth, String body,
                             String sentiment, double sentimentNumber) {
 
-        this.hash = hash;
+        this.fingerprint = fingerprint;
         this.date = date;
         this.ticker = ticker;
         this.positive = positive;
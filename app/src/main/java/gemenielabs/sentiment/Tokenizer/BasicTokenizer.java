@@ -1,92 +1,101 @@
 package gemenielabs.sentiment.Tokenizer;
 
 
-import com.google.common.base.Ascii;
-import com.google.common.collect.Iterables;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
-    /** Basic tokenization (punctuation splitting, lower casing, etc.) */
-    public final class BasicTokenizer {
-        private final boolean doLowerCase;
+/**
+ * Basic tokenization (punctuation splitting, lower casing, etc.)
+ *
+ * The text is cleaned once into the buffer of a {@link TokenSpans} and tokens are recorded as
+ * offsets into it, so tokenizing is linear in the length of the text.
+ */
+public final class BasicTokenizer {
+    private final boolean doLowerCase;
 
-        public BasicTokenizer(boolean doLowerCase) {
-            this.doLowerCase = doLowerCase;
-        }
-
-        public List<String> tokenize(String text) {
-            String cleanedText = cleanText(text);
-
-            List<String> origTokens = whitespaceTokenize(cleanedText);
+    public BasicTokenizer(boolean doLowerCase) {
+        this.doLowerCase = doLowerCase;
+    }
 
-            StringBuilder stringBuilder = new StringBuilder();
-            for (String token : origTokens) {
-                if (doLowerCase) {
-                    token = Ascii.toLowerCase(token);
-                }
-                List<String> list = runSplitOnPunc(token);
-                for (String subToken : list) {
-                    stringBuilder.append(subToken).append(" ");
-                }
-            }
-            return whitespaceTokenize(stringBuilder.toString());
+    public List<String> tokenize(String text) {
+        TokenSpans spans = tokenize(text, new TokenSpans());
+        List<String> tokens = new ArrayList<>(spans.size());
+        for (int i = 0; i < spans.size(); i++) {
+            tokens.add(spans.tokenString(i));
         }
+        // Splitting an empty text on " " used to give a single empty token, callers still get it
+        if (tokens.isEmpty()) {
+            tokens.add("");
+        }
+        return tokens;
+    }
 
-        /* Performs invalid character removal and whitespace cleanup on text. */
-        static String cleanText(String text) {
-            if (text == null) {
-                throw new NullPointerException("The input String is null.");
-            }
+    /**
+     * Cleans {@code text} into {@code spans} and records a span for every token: each run of
+     * non-punctuation between whitespace, and each punctuation character on its own.
+     *
+     * @return {@code spans}, reset and refilled.
+     */
+    public TokenSpans tokenize(CharSequence text, TokenSpans spans) {
+        if (text == null) {
+            throw new NullPointerException("The input String is null.");
+        }
 
-            StringBuilder stringBuilder = new StringBuilder("");
-            for (int index = 0; index < text.length(); index++) {
-                char ch = text.charAt(index);
+        char[] cleaned = spans.reset(text.length());
+        int length = cleanInto(text, cleaned);
+        spans.setLength(length);
 
-                // Skip the characters that cannot be used.
-                if (CharChecker.isInvalid(ch) || CharChecker.isControl(ch)) {
-                    continue;
-                }
-                if (CharChecker.isWhitespace(ch)) {
-                    stringBuilder.append(" ");
-                } else {
-                    stringBuilder.append(ch);
-                }
+        int wordStart = 0;
+        for (int i = 0; i < length; i++) {
+            char ch = cleaned[i];
+            if (ch == ' ') {
+                addWord(spans, wordStart, i);
+                wordStart = i + 1;
+            } else if (CharChecker.isPunctuation(ch)) {
+                addWord(spans, wordStart, i);
+                spans.add(i, i + 1);
+                wordStart = i + 1;
             }
-            return stringBuilder.toString();
         }
+        addWord(spans, wordStart, length);
+        return spans;
+    }
 
-        /* Runs basic whitespace cleaning and splitting on a piece of text. */
-        static List<String> whitespaceTokenize(String text) {
-            if (text == null) {
-                throw new NullPointerException("The input String is null.");
-            }
-            return Arrays.asList(text.split(" "));
-        }
+    /*
+     * Performs invalid character removal and whitespace cleanup on text, lower casing when
+     * enabled, into out. out must hold text.length() chars; returns the cleaned length.
+     */
+    private int cleanInto(CharSequence text, char[] out) {
+        int length = 0;
+        for (int index = 0; index < text.length(); index++) {
+            char ch = text.charAt(index);
 
-        /* Splits punctuation on a piece of text. */
-        static List<String> runSplitOnPunc(String text) {
-            if (text == null) {
-                throw new NullPointerException("The input String is null.");
+            // Skip the characters that cannot be used.
+            if (CharChecker.isInvalid(ch) || CharChecker.isControl(ch)) {
+                continue;
             }
-
-            List<String> tokens = new ArrayList<>();
-            boolean startNewWord = true;
-            for (int i = 0; i < text.length(); i++) {
-                char ch = text.charAt(i);
-                if (CharChecker.isPunctuation(ch)) {
-                    tokens.add(String.valueOf(ch));
-                    startNewWord = true;
-                } else {
-                    if (startNewWord) {
-                        tokens.add("");
-                        startNewWord = false;
-                    }
-                    tokens.set(tokens.size() - 1, Iterables.getLast(tokens) + ch);
-                }
+            if (CharChecker.isWhitespace(ch)) {
+                ch = ' ';
+            } else if (doLowerCase && ch >= 'A' && ch <= 'Z') {
+                ch = (char) (ch + ('a' - 'A'));
             }
+            out[length++] = ch;
+        }
+        return length;
+    }
 
-            return tokens;
+    private static void addWord(TokenSpans spans, int start, int end) {
+        if (start < end) {
+            spans.add(start, end);
         }
     }
 
+    /* Runs basic whitespace cleaning and splitting on a piece of text. */
+    static List<String> whitespaceTokenize(String text) {
+        if (text == null) {
+            throw new NullPointerException("The input String is null.");
+        }
+        return Arrays.asList(text.split(" "));
+    }
+}
@@ -1,8 +1,15 @@
 package gemenielabs.sentiment.Tokenizer;
 
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import gemenielabs.sentiment.DataProcessing.Fingerprint;
 
 /**
  * A java realization of Bert tokenization. Original python code:
@@ -10,14 +17,53 @@ import java.util.Map;
  * tokenize a String into split subtokens or ids.
  */
 public final class BertTokenizer {
+    private static final String CLS_TOKEN = "[CLS]";
+    private static final String SEP_TOKEN = "[SEP]";
+    private static final int PAD_ID = 0;
+
+    // Batches at or below this many texts are encoded on the calling thread
+    private static final int SPLIT_THRESHOLD = 16;
+
+    private static final ForkJoinPool POOL =
+            new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+
+    private static final DirectBufferPool BUFFERS = new DirectBufferPool(4);
+
+    // Per thread buffers for encode, so nothing is allocated per token
+    private static final ThreadLocal<Scratch> SCRATCH = new ThreadLocal<Scratch>() {
+        @Override
+        protected Scratch initialValue() {
+            return new Scratch();
+        }
+    };
+
     private final BasicTokenizer basicTokenizer;
     private final WordpieceTokenizer wordpieceTokenizer;
     private final Map<String, Integer> dic;
+    private final int clsId;
+    private final int sepId;
+    private final long vocabId;
 
     public BertTokenizer(Map<String, Integer> inputDic, boolean doLowerCase) {
         dic = inputDic;
         basicTokenizer = new BasicTokenizer(doLowerCase);
         wordpieceTokenizer = new WordpieceTokenizer(inputDic);
+        clsId = inputDic.containsKey(CLS_TOKEN) ? inputDic.get(CLS_TOKEN) : -1;
+        sepId = inputDic.containsKey(SEP_TOKEN) ? inputDic.get(SEP_TOKEN) : -1;
+
+        long id = doLowerCase ? 1 : 0;
+        for (Map.Entry<String, Integer> entry : inputDic.entrySet()) {
+            id += Fingerprint.hash(entry.getKey() + "\t" + entry.getValue());
+        }
+        vocabId = id;
+    }
+
+    /**
+     * Identifies the vocabulary and casing, which alone decide the ids, so ids stored for one
+     * tokenizer are never handed out by another.
+     */
+    public long vocabId() {
+        return vocabId;
     }
 
     public List<String> tokenize(String text) {
@@ -35,4 +81,145 @@ public final class BertTokenizer {
         }
         return outputIds;
     }
-}
\ No newline at end of file
+
+    /**
+     * Encodes {@code text} as model input of {@code maxLen} positions: [CLS], the ids of
+     * {@link #tokenize(String)} truncated to fit, [SEP], then padding. Each array must hold at
+     * least {@code maxLen} ints; the mask is 1 over the real tokens and segment ids are all 0.
+     *
+     * @return the number of positions used before padding.
+     */
+    public int encode(String text, int maxLen, int[] inputIds, int[] inputMask, int[] segmentIds) {
+        int length = encodeIds(text, maxLen, inputIds);
+        Arrays.fill(inputIds, length, maxLen, PAD_ID);
+        Arrays.fill(inputMask, 0, length, 1);
+        Arrays.fill(inputMask, length, maxLen, 0);
+        Arrays.fill(segmentIds, 0, maxLen, 0);
+        return length;
+    }
+
+    /**
+     * Same as {@link #encode(String, int, int[], int[], int[])}, writing {@code maxLen} values
+     * at the current position of each buffer and advancing it, so consecutive calls fill
+     * consecutive rows.
+     */
+    public int encode(String text, int maxLen, IntBuffer inputIds, IntBuffer inputMask, IntBuffer segmentIds) {
+        int[] ids = SCRATCH.get().ids(maxLen);
+        int length = encodeIds(text, maxLen, ids);
+        inputIds.put(ids, 0, length);
+        for (int i = length; i < maxLen; i++) {
+            inputIds.put(PAD_ID);
+        }
+        for (int i = 0; i < maxLen; i++) {
+            inputMask.put(i < length ? 1 : 0);
+            segmentIds.put(0);
+        }
+        return length;
+    }
+
+    /**
+     * Encodes every text as one row of a [texts.size(), maxLen] batch, spread over the cores.
+     * Row i holds exactly what {@link #encode(String, int, int[], int[], int[])} gives for
+     * texts.get(i). Close the result to return its buffer to the pool.
+     */
+    public EncodedBatch encodeBatch(List<String> texts, int maxLen) {
+        if (texts == null) {
+            throw new NullPointerException("The input List is null.");
+        }
+        int batchSize = texts.size();
+        EncodedBatch batch = allocate(batchSize, maxLen);
+
+        EncodeTask task = new EncodeTask(this, texts, batch, 0, batchSize);
+        try {
+            if (batchSize <= SPLIT_THRESHOLD) {
+                task.compute();
+            } else {
+                POOL.invoke(task);
+            }
+        } catch (RuntimeException e) {
+            batch.close();
+            throw e;
+        }
+        return batch;
+    }
+
+    // An empty batch on a pooled buffer
+    static EncodedBatch allocate(int batchSize, int maxLen) {
+        ByteBuffer buffer = BUFFERS.acquire(3 * EncodedBatch.tensorBytes(batchSize, maxLen));
+        return new EncodedBatch(BUFFERS, buffer, batchSize, maxLen);
+    }
+
+    // Writes [CLS] ids [SEP] into ids and returns how many were written
+    int encodeIds(String text, int maxLen, int[] ids) {
+        if (text == null) {
+            throw new NullPointerException("The input String is null.");
+        }
+        if (maxLen < 2) {
+            throw new IllegalArgumentException("maxLen must leave room for [CLS] and [SEP]: " + maxLen);
+        }
+        if (clsId < 0 || sepId < 0) {
+            throw new IllegalStateException("The vocabulary has no [CLS] or [SEP] token.");
+        }
+
+        TokenSpans spans = basicTokenizer.tokenize(text, SCRATCH.get().spans);
+        CharSequence cleaned = spans.text();
+
+        int limit = maxLen - 1;
+        int count = 0;
+        ids[count++] = clsId;
+        for (int i = 0; i < spans.size() && count < limit; i++) {
+            count += wordpieceTokenizer.encodeWord(cleaned, spans.start(i), spans.end(i), ids, count, limit);
+        }
+        ids[count++] = sepId;
+        return count;
+    }
+
+    private static final class EncodeTask extends RecursiveAction {
+        private final BertTokenizer tokenizer;
+        private final List<String> texts;
+        private final EncodedBatch batch;
+        private final int from;
+        private final int to;
+
+        EncodeTask(BertTokenizer tokenizer, List<String> texts, EncodedBatch batch, int from, int to) {
+            this.tokenizer = tokenizer;
+            this.texts = texts;
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                // Rows are consecutive, so each encode call carries on where the last one stopped
+                int maxLen = batch.maxLen();
+                IntBuffer ids = batch.inputIds().asIntBuffer();
+                IntBuffer mask = batch.inputMask().asIntBuffer();
+                IntBuffer segments = batch.segmentIds().asIntBuffer();
+                ids.position(from * maxLen);
+                mask.position(from * maxLen);
+                segments.position(from * maxLen);
+                for (int i = from; i < to; i++) {
+                    batch.setLength(i, tokenizer.encode(texts.get(i), maxLen, ids, mask, segments));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new EncodeTask(tokenizer, texts, batch, from, middle),
+                    new EncodeTask(tokenizer, texts, batch, middle, to));
+        }
+    }
+
+    private static final class Scratch {
+        private final TokenSpans spans = new TokenSpans();
+        private int[] ids = new int[0];
+
+        int[] ids(int length) {
+            if (ids.length < length) {
+                ids = new int[length];
+            }
+            return ids;
+        }
+    }
+}
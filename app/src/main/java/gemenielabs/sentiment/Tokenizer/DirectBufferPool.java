@@ -0,0 +1,56 @@
+package gemenielabs.sentiment.Tokenizer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * Small pool of native-order direct buffers, so encoding batch after batch does not keep
+ * allocating (and waiting for the collector to free) off-heap memory.
+ */
+final class DirectBufferPool {
+    private final int maxPooled;
+    private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+
+    DirectBufferPool(int maxPooled) {
+        this.maxPooled = maxPooled;
+    }
+
+    // A cleared buffer with its limit set to capacity bytes
+    synchronized ByteBuffer acquire(int capacity) {
+        Iterator<ByteBuffer> iterator = free.iterator();
+        while (iterator.hasNext()) {
+            ByteBuffer buffer = iterator.next();
+            if (buffer.capacity() >= capacity) {
+                iterator.remove();
+                buffer.clear();
+                buffer.limit(capacity);
+                return buffer;
+            }
+        }
+        // Round up so slightly larger batches can reuse the buffer
+        int rounded = Integer.highestOneBit(Math.max(capacity, 1024) - 1) << 1;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(rounded).order(ByteOrder.nativeOrder());
+        buffer.limit(capacity);
+        return buffer;
+    }
+
+    synchronized void release(ByteBuffer buffer) {
+        if (free.size() < maxPooled) {
+            free.add(buffer);
+            return;
+        }
+        // Full: keep the larger buffers, they can serve any batch the smaller ones could
+        ByteBuffer smallest = null;
+        for (ByteBuffer pooled : free) {
+            if (smallest == null || pooled.capacity() < smallest.capacity()) {
+                smallest = pooled;
+            }
+        }
+        if (smallest != null && smallest.capacity() < buffer.capacity()) {
+            free.remove(smallest);
+            free.add(buffer);
+        }
+    }
+}
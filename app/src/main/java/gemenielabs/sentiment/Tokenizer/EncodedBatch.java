@@ -0,0 +1,108 @@
+package gemenielabs.sentiment.Tokenizer;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Result of {@link BertTokenizer#encodeBatch(java.util.List, int)}: one direct, native-order
+ * buffer holding three int32 tensors of shape [batchSize, maxLen] back to back, input ids,
+ * then attention mask, then segment ids, ready to hand to an on-device model.
+ *
+ * The buffer comes from a pool; {@link #close()} gives it back, after which it must not be used.
+ */
+public final class EncodedBatch implements Closeable {
+    private final DirectBufferPool pool;
+    private final ByteBuffer buffer;
+    private final int batchSize;
+    private final int maxLen;
+    private final int[] lengths;
+    private boolean closed;
+
+    EncodedBatch(DirectBufferPool pool, ByteBuffer buffer, int batchSize, int maxLen) {
+        this.pool = pool;
+        this.buffer = buffer;
+        this.batchSize = batchSize;
+        this.maxLen = maxLen;
+        this.lengths = new int[batchSize];
+    }
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    public int maxLen() {
+        return maxLen;
+    }
+
+    // Positions of row used by [CLS], the tokens and [SEP]
+    public int length(int row) {
+        return lengths[row];
+    }
+
+    // All three tensors, ids first
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    public ByteBuffer inputIds() {
+        return tensor(0);
+    }
+
+    public ByteBuffer inputMask() {
+        return tensor(1);
+    }
+
+    public ByteBuffer segmentIds() {
+        return tensor(2);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            pool.release(buffer);
+        }
+    }
+
+    static int tensorBytes(int batchSize, int maxLen) {
+        return batchSize * maxLen * 4;
+    }
+
+    void setLength(int row, int length) {
+        lengths[row] = length;
+    }
+
+    // The ids of row without its padding
+    int[] ids(int row) {
+        int[] ids = new int[lengths[row]];
+        IntBuffer rows = inputIds().asIntBuffer();
+        rows.position(row * maxLen);
+        rows.get(ids);
+        return ids;
+    }
+
+    // Fills row from unpadded ids, as BertTokenizer.encode would
+    void setRow(int row, int[] ids) {
+        IntBuffer inputIds = inputIds().asIntBuffer();
+        IntBuffer inputMask = inputMask().asIntBuffer();
+        IntBuffer segmentIds = segmentIds().asIntBuffer();
+        int offset = row * maxLen;
+        for (int i = 0; i < maxLen; i++) {
+            inputIds.put(offset + i, i < ids.length ? ids[i] : 0);
+            inputMask.put(offset + i, i < ids.length ? 1 : 0);
+            segmentIds.put(offset + i, 0);
+        }
+        lengths[row] = ids.length;
+    }
+
+    private ByteBuffer tensor(int index) {
+        int bytes = tensorBytes(batchSize, maxLen);
+        ByteBuffer view = buffer.duplicate();
+        view.position(index * bytes);
+        view.limit((index + 1) * bytes);
+        // slice() resets the byte order
+        return view.slice().order(ByteOrder.nativeOrder());
+    }
+}
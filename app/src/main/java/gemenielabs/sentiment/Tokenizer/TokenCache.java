@@ -0,0 +1,221 @@
+package gemenielabs.sentiment.Tokenizer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import gemenielabs.sentiment.DataProcessing.Fingerprint;
+import gemenielabs.sentiment.Room.StockDao;
+import gemenielabs.sentiment.Room.TokenDetails;
+
+/**
+ * Bounded LRU cache of {@link BertTokenizer} encodings keyed by the {@link Fingerprint} of the
+ * text, so article descriptions seen on an earlier refresh are not tokenized again. Entries
+ * hold the ids of [CLS], the tokens and [SEP] without padding, and the cache evicts the least
+ * recently used ones once their estimated heap footprint passes the byte limit.
+ *
+ * With a {@link StockDao} every new encoding is also written to token_details, and misses are
+ * looked up there before tokenizing, so encodings survive restarts. Stored rows are keyed by the
+ * tokenizer's {@link BertTokenizer#vocabId()} as well, and the table is pruned to the most
+ * recently used {@code maxStoredRows} of the current vocabulary when the cache is created and
+ * every {@link #PRUNE_INTERVAL} new rows. Store calls run on the calling thread, so create and
+ * use it off the main thread like any other Room call.
+ */
+public final class TokenCache {
+
+    // Rough heap cost of an entry besides its ids: map node, boxed key and array header
+    private static final int ENTRY_OVERHEAD_BYTES = 80;
+
+    public static final int PRUNE_INTERVAL = 1000;
+
+    private final BertTokenizer tokenizer;
+    private final int maxLen;
+    private final long maxBytes;
+    private final StockDao store;
+    private final int maxStoredRows;
+    private int storedSincePrune;
+    private final LinkedHashMap<Long, int[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long sizeInBytes;
+    private long hits;
+    private long misses;
+
+    /**
+     * @param store         where encodings are persisted, or null to keep them in memory only.
+     * @param maxStoredRows most encodings kept in the store.
+     */
+    public TokenCache(BertTokenizer tokenizer, int maxLen, long maxBytes, StockDao store, int maxStoredRows) {
+        this.tokenizer = tokenizer;
+        this.maxLen = maxLen;
+        this.maxBytes = maxBytes;
+        this.store = store;
+        this.maxStoredRows = maxStoredRows;
+        if (store != null) {
+            store.pruneTokenDetails(tokenizer.vocabId(), maxStoredRows);
+        }
+    }
+
+    /**
+     * Ids of {@code text} as {@link BertTokenizer#encode(String, int, int[], int[], int[])}
+     * would write them, without the padding. The array is shared and must not be modified.
+     */
+    public int[] encode(String text) {
+        long fingerprint = Fingerprint.hash(text);
+        int[] ids = lookup(fingerprint);
+        if (ids != null) {
+            return ids;
+        }
+
+        int[] row = new int[maxLen];
+        ids = Arrays.copyOf(row, tokenizer.encodeIds(text, maxLen, row));
+        remember(fingerprint, ids);
+        return ids;
+    }
+
+    /**
+     * Encodes every text as one row of a [texts.size(), maxLen] batch, as
+     * {@link BertTokenizer#encodeBatch(List, int)} would. Texts not cached are tokenized together
+     * through it. Close the result to return its buffer to the pool.
+     */
+    public EncodedBatch encodeBatch(List<String> texts) {
+        EncodedBatch batch = BertTokenizer.allocate(texts.size(), maxLen);
+        try {
+            List<String> missed = new ArrayList<>();
+            List<Integer> missedRows = new ArrayList<>();
+            for (int row = 0; row < texts.size(); row++) {
+                int[] ids = lookup(Fingerprint.hash(texts.get(row)));
+                if (ids == null) {
+                    missed.add(texts.get(row));
+                    missedRows.add(row);
+                } else {
+                    batch.setRow(row, ids);
+                }
+            }
+            if (missed.size() > 0) {
+                try (EncodedBatch encoded = tokenizer.encodeBatch(missed, maxLen)) {
+                    for (int i = 0; i < missed.size(); i++) {
+                        int[] ids = encoded.ids(i);
+                        remember(Fingerprint.hash(missed.get(i)), ids);
+                        batch.setRow(missedRows.get(i), ids);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            batch.close();
+            throw e;
+        }
+        return batch;
+    }
+
+    // Estimated heap held by the cached encodings
+    public synchronized long sizeInBytes() {
+        return sizeInBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // Lookups answered from memory or the store
+    public synchronized long hitCount() {
+        return hits;
+    }
+
+    // Lookups that had to tokenize
+    public synchronized long missCount() {
+        return misses;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        sizeInBytes = 0;
+    }
+
+    // Ids from memory or the store, null when the text has to be tokenized
+    private int[] lookup(long fingerprint) {
+        int[] ids = get(fingerprint);
+        if (ids != null || store == null) {
+            return ids;
+        }
+        TokenDetails details = store.getTokenDetails(fingerprint, maxLen, tokenizer.vocabId());
+        if (details == null) {
+            return null;
+        }
+        store.touchTokenDetails(fingerprint, maxLen, tokenizer.vocabId(), System.currentTimeMillis());
+        ids = unpack(details.getTokenIds());
+        put(fingerprint, ids, true);
+        return ids;
+    }
+
+    // Caches freshly tokenized ids and persists them
+    private void remember(long fingerprint, int[] ids) {
+        put(fingerprint, ids, false);
+        if (store != null) {
+            TokenDetails details = new TokenDetails();
+            details.setFingerprint(fingerprint);
+            details.setMaxLen(maxLen);
+            details.setVocabId(tokenizer.vocabId());
+            details.setTokenIds(pack(ids));
+            details.setLastUsed(System.currentTimeMillis());
+            store.insertTokenDetails(details);
+            if (pruneDue()) {
+                store.pruneTokenDetails(tokenizer.vocabId(), maxStoredRows);
+            }
+        }
+    }
+
+    private synchronized boolean pruneDue() {
+        if (++storedSincePrune < PRUNE_INTERVAL) {
+            return false;
+        }
+        storedSincePrune = 0;
+        return true;
+    }
+
+    private synchronized int[] get(long fingerprint) {
+        int[] ids = entries.get(fingerprint);
+        if (ids != null) {
+            hits++;
+        }
+        return ids;
+    }
+
+    private synchronized void put(long fingerprint, int[] ids, boolean fromStore) {
+        if (fromStore) {
+            hits++;
+        } else {
+            misses++;
+        }
+        int[] previous = entries.put(fingerprint, ids);
+        if (previous != null) {
+            sizeInBytes -= bytes(previous);
+        }
+        sizeInBytes += bytes(ids);
+
+        Iterator<Map.Entry<Long, int[]>> eldest = entries.entrySet().iterator();
+        while (sizeInBytes > maxBytes && eldest.hasNext()) {
+            sizeInBytes -= bytes(eldest.next().getValue());
+            eldest.remove();
+        }
+    }
+
+    private static long bytes(int[] ids) {
+        return ENTRY_OVERHEAD_BYTES + 4L * ids.length;
+    }
+
+    private static byte[] pack(int[] ids) {
+        ByteBuffer buffer = ByteBuffer.allocate(4 * ids.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asIntBuffer().put(ids);
+        return buffer.array();
+    }
+
+    private static int[] unpack(byte[] bytes) {
+        int[] ids = new int[bytes.length / 4];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(ids);
+        return ids;
+    }
+}
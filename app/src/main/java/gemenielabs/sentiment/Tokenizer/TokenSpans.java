@@ -0,0 +1,102 @@
+package gemenielabs.sentiment.Tokenizer;
+
+import java.util.Arrays;
+
+/**
+ * Output of {@link BasicTokenizer#tokenize(CharSequence, TokenSpans)}: the cleaned text and the
+ * [start, end) offsets of each token in it. Tokens are read as offsets or as CharSequence
+ * views, so no String is built unless a caller asks for one. An instance is reused from one
+ * text to the next and is not thread safe.
+ */
+public final class TokenSpans {
+    private char[] chars = new char[0];
+    private int length;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public int start(int token) {
+        return starts[token];
+    }
+
+    public int end(int token) {
+        return ends[token];
+    }
+
+    // The whole cleaned text, token offsets index into it
+    public CharSequence text() {
+        return new View(0, length);
+    }
+
+    public CharSequence token(int token) {
+        return new View(starts[token], ends[token]);
+    }
+
+    public String tokenString(int token) {
+        return new String(chars, starts[token], ends[token] - starts[token]);
+    }
+
+    // Clears the spans and returns a buffer of at least capacity chars for the cleaned text
+    char[] reset(int capacity) {
+        if (chars.length < capacity) {
+            chars = new char[Math.max(capacity, chars.length * 2)];
+        }
+        length = 0;
+        size = 0;
+        return chars;
+    }
+
+    void setLength(int length) {
+        this.length = length;
+    }
+
+    void add(int start, int end) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+
+    private final class View implements CharSequence {
+        private final int start;
+        private final int end;
+
+        View(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= end - start) {
+                throw new IndexOutOfBoundsException("index " + index + ", length " + (end - start));
+            }
+            return chars[start + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            if (from < 0 || to > end - start || from > to) {
+                throw new IndexOutOfBoundsException("[" + from + ", " + to + "), length " + (end - start));
+            }
+            return new View(start + from, start + to);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, start, end - start);
+        }
+    }
+}
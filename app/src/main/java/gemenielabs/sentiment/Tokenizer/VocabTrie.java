@@ -0,0 +1,155 @@
+package gemenielabs.sentiment.Tokenizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only character trie over vocabulary entries, flattened into primitive arrays. The
+ * children of a node sit next to each other, sorted by character, so a step is a binary search
+ * and a longest match walks the input once without building substrings.
+ */
+final class VocabTrie {
+
+    static final int NO_MATCH = -1;
+
+    private static final int NO_TOKEN = -1;
+
+    // Node n owns edges [firstEdge[n], firstEdge[n + 1])
+    private final int[] firstEdge;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final int[] depths;
+    private final int[] tokenIds;
+
+    /**
+     * Builds a trie of every vocabulary entry starting with {@code prefix}, with the prefix
+     * stripped, so "##" gives the trie of word continuations.
+     */
+    VocabTrie(Map<String, Integer> vocab, String prefix) {
+        List<String> keys = new ArrayList<>();
+        int totalChars = 0;
+        for (String key : vocab.keySet()) {
+            if (key.startsWith(prefix)) {
+                keys.add(key);
+                totalChars += key.length() - prefix.length();
+            }
+        }
+        String[] sorted = keys.toArray(new String[0]);
+        Arrays.sort(sorted);
+
+        int capacity = totalChars + 1;
+        firstEdge = new int[capacity + 1];
+        edgeChars = new char[capacity];
+        edgeTargets = new int[capacity];
+        depths = new int[capacity];
+        tokenIds = new int[capacity];
+
+        Builder builder = new Builder(vocab, sorted, prefix.length());
+        builder.build(builder.newNode(0), 0, sorted.length, 0);
+        firstEdge[builder.nodes] = builder.edges;
+    }
+
+    /**
+     * Walks {@code text[from, to)} from {@code from} and returns the node of the longest
+     * non-empty vocabulary entry it starts with, or {@link #NO_MATCH}.
+     */
+    int longestMatch(CharSequence text, int from, int to) {
+        int node = 0;
+        int match = NO_MATCH;
+        for (int i = from; i < to; i++) {
+            node = child(node, text.charAt(i));
+            if (node < 0) {
+                break;
+            }
+            if (tokenIds[node] != NO_TOKEN) {
+                match = node;
+            }
+        }
+        return match;
+    }
+
+    // Length of the entry ending at node
+    int depth(int node) {
+        return depths[node];
+    }
+
+    int tokenId(int node) {
+        return tokenIds[node];
+    }
+
+    private int child(int node, char ch) {
+        int low = firstEdge[node];
+        int high = firstEdge[node + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char edge = edgeChars[middle];
+            if (edge < ch) {
+                low = middle + 1;
+            } else if (edge > ch) {
+                high = middle - 1;
+            } else {
+                return edgeTargets[middle];
+            }
+        }
+        return -1;
+    }
+
+    // Lays the sorted keys out depth first, so each node's edge block follows its parent's
+    private final class Builder {
+        private final Map<String, Integer> vocab;
+        private final String[] keys;
+        private final int skip;
+        private int nodes;
+        private int edges;
+
+        Builder(Map<String, Integer> vocab, String[] keys, int skip) {
+            this.vocab = vocab;
+            this.keys = keys;
+            this.skip = skip;
+        }
+
+        int newNode(int depth) {
+            int node = nodes++;
+            depths[node] = depth;
+            tokenIds[node] = NO_TOKEN;
+            return node;
+        }
+
+        // keys[from, to) share their first depth characters after the prefix
+        void build(int node, int from, int to, int depth) {
+            if (from < to && keys[from].length() - skip == depth) {
+                tokenIds[node] = vocab.get(keys[from]);
+                from++;
+            }
+
+            firstEdge[node] = edges;
+            int groups = 0;
+            for (int i = from; i < to; i = groupEnd(i, to, depth)) {
+                groups++;
+            }
+            int edge = edges;
+            edges += groups;
+
+            for (int i = from; i < to; ) {
+                int end = groupEnd(i, to, depth);
+                int child = newNode(depth + 1);
+                edgeChars[edge] = keys[i].charAt(skip + depth);
+                edgeTargets[edge] = child;
+                edge++;
+                build(child, i, end, depth + 1);
+                i = end;
+            }
+        }
+
+        private int groupEnd(int from, int to, int depth) {
+            char ch = keys[from].charAt(skip + depth);
+            int end = from + 1;
+            while (end < to && keys[end].charAt(skip + depth) == ch) {
+                end++;
+            }
+            return end;
+        }
+    }
+}
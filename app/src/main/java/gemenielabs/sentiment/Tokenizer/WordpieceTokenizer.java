@@ -6,13 +6,19 @@ import java.util.Map;
 
 /** Word piece tokenization to split a piece of text into its word pieces. */
 public final class WordpieceTokenizer {
-    private final Map<String, Integer> dic;
+    private final VocabTrie wordStarts;
+    private final VocabTrie wordContinuations;
+    private final int unknownId;
 
     private static final String UNKNOWN_TOKEN = "[UNK]"; // For unknown words.
+    private static final String CONTINUATION_PREFIX = "##";
     private static final int MAX_INPUTCHARS_PER_WORD = 200;
 
     public WordpieceTokenizer(Map<String, Integer> vocab) {
-        dic = vocab;
+        wordStarts = new VocabTrie(vocab, "");
+        wordContinuations = new VocabTrie(vocab, CONTINUATION_PREFIX);
+        Integer unknown = vocab.get(UNKNOWN_TOKEN);
+        unknownId = unknown == null ? -1 : unknown;
     }
 
     /**
@@ -41,28 +47,22 @@ public final class WordpieceTokenizer {
             int start = 0;
             List<String> subTokens = new ArrayList<>();
 
+            VocabTrie trie = wordStarts;
+
             while (start < token.length()) {
-                String curSubStr = "";
-
-                int end = token.length(); // Longer substring matches first.
-                while (start < end) {
-                    String subStr =
-                            (start == 0) ? token.substring(start, end) : "##" + token.substring(start, end);
-                    if (dic.containsKey(subStr)) {
-                        curSubStr = subStr;
-                        break;
-                    }
-                    end--;
-                }
+                // The longest known subword starting here, found in one walk of the trie.
+                int node = trie.longestMatch(token, start, token.length());
 
                 // The word doesn't contain any known subwords.
-                if ("".equals(curSubStr)) {
+                if (node == VocabTrie.NO_MATCH) {
                     isBad = true;
                     break;
                 }
 
-                // curSubStr is the longeset subword that can be found.
-                subTokens.add(curSubStr);
+                int end = start + trie.depth(node);
+                subTokens.add((start == 0) ? token.substring(start, end)
+                        : CONTINUATION_PREFIX + token.substring(start, end));
+                trie = wordContinuations;
 
                 // Proceed to tokenize the resident string.
                 start = end;
@@ -77,4 +77,44 @@ public final class WordpieceTokenizer {
 
         return outputTokens;
     }
-}
\ No newline at end of file
+
+    /**
+     * Writes the ids of the word pieces of the single word {@code text[from, to)} into
+     * {@code ids[offset, limit)}, without creating any strings. Pieces past {@code limit} are
+     * dropped, as if the token list had been truncated.
+     *
+     * @return the number of ids written.
+     */
+    public int encodeWord(CharSequence text, int from, int to, int[] ids, int offset, int limit) {
+        if (offset >= limit || from == to) {
+            return 0;
+        }
+        if (to - from > MAX_INPUTCHARS_PER_WORD) {
+            ids[offset] = unknownId;
+            return 1;
+        }
+
+        int written = 0;
+        int start = from;
+        VocabTrie trie = wordStarts;
+        while (start < to) {
+            int node = trie.longestMatch(text, start, to);
+            if (node == VocabTrie.NO_MATCH) {
+                // Any pieces already written are replaced by a single [UNK]
+                ids[offset] = unknownId;
+                return 1;
+            }
+            if (offset + written < limit) {
+                ids[offset + written] = trie.tokenId(node);
+                written++;
+            }
+            start += trie.depth(node);
+            trie = wordContinuations;
+        }
+        return written;
+    }
+
+    public int unknownId() {
+        return unknownId;
+    }
+}